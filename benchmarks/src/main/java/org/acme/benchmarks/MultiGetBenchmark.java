@@ -0,0 +1,169 @@
+package org.acme.benchmarks;
+
+import org.acme.Jogo;
+import org.acme.multiget.IdBatcher;
+import org.acme.multiget.IdLookup;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leituras por id contra um H2 em memória com 100k jogos: N SELECTs por id
+ * contra um {@code id in (...)} com os N ids, e GETs por id concorrentes com e
+ * sem o {@link IdBatcher}. Cada consulta pega a sua conexão de um pool, como
+ * no servidor.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultiGetBenchmark {
+
+    private static final String COLUMNS = "id, versao, titulo, descricao, anoLancamento";
+    private static final int ROWS = 100_000;
+
+    @Param({"10", "50"})
+    int ids;
+
+    private JdbcConnectionPool pool;
+    private IdLookup<Jogo> lookup;
+    private IdBatcher batcher;
+
+    @Setup(Level.Trial)
+    public void seed() throws SQLException {
+        pool = JdbcConnectionPool.create("jdbc:h2:mem:multiget;DB_CLOSE_DELAY=-1", "sa", "");
+        pool.setMaxConnections(32);
+        try (Connection connection = pool.getConnection()) {
+            try (Statement ddl = connection.createStatement()) {
+                ddl.execute("drop table if exists Jogo");
+                ddl.execute("create table Jogo (id bigint not null primary key, versao bigint, "
+                        + "titulo varchar(255), descricao varchar(255), anoLancamento integer not null)");
+            }
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement("insert into Jogo (" + COLUMNS + ") values (?, 0, ?, ?, ?)")) {
+                for (int id = 1; id <= ROWS; id++) {
+                    insert.setLong(1, id);
+                    insert.setString(2, "Jogo " + id);
+                    insert.setString(3, "Descrição do jogo " + id);
+                    insert.setInt(4, 1980 + id % 45);
+                    insert.addBatch();
+                    if (id % 1000 == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+        }
+
+        lookup = new IdLookup<>(Jogo.class, this::selectIn, jogo -> jogo.id);
+        batcher = new IdBatcher(Duration.ofMillis(2), 64);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        try (Connection connection = pool.getConnection(); Statement ddl = connection.createStatement()) {
+            ddl.execute("drop table Jogo");
+        }
+        pool.dispose();
+    }
+
+    /**
+     * O que o frontend faz hoje: um GET (e um findById) por jogo da página.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Jogo> sequentialFindById() {
+        List<Jogo> jogos = new ArrayList<>(ids);
+        for (Long id : randomIds(ids)) {
+            jogos.addAll(selectIn(List.of(id)));
+        }
+        return jogos;
+    }
+
+    /**
+     * {@code GET /v1/jogos?ids=...}: os mesmos jogos em uma consulta.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Jogo> multiGet() {
+        return selectIn(randomIds(ids));
+    }
+
+    @Benchmark
+    @Threads(16)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Jogo> concurrentFindById() {
+        return selectIn(randomIds(1));
+    }
+
+    @Benchmark
+    @Threads(16)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Jogo concurrentBatched() {
+        return batcher.find(lookup, randomIds(1).get(0));
+    }
+
+    /**
+     * GET por id isolado pelo {@link IdBatcher}: sem consulta concorrente não
+     * há janela, então deve custar o mesmo que um findById.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Jogo isolatedBatched() {
+        return batcher.find(lookup, randomIds(1).get(0));
+    }
+
+    private static List<Long> randomIds(int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(1L + random.nextInt(ROWS));
+        }
+        return ids;
+    }
+
+    private List<Jogo> selectIn(List<Long> ids) {
+        StringBuilder sql = new StringBuilder("select " + COLUMNS + " from Jogo where id in (");
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+        try (Connection connection = pool.getConnection();
+             PreparedStatement query = connection.prepareStatement(sql.toString())) {
+            for (int i = 0; i < ids.size(); i++) {
+                query.setLong(i + 1, ids.get(i));
+            }
+            List<Jogo> jogos = new ArrayList<>(ids.size());
+            try (ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    Jogo jogo = new Jogo();
+                    jogo.id = rs.getLong(1);
+                    jogo.versao = rs.getLong(2);
+                    jogo.titulo = rs.getString(3);
+                    jogo.descricao = rs.getString(4);
+                    jogo.anoLancamento = rs.getInt(5);
+                    jogos.add(jogo);
+                }
+            }
+            return jogos;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.acme.benchmarks;
+
+import org.acme.ratelimit.RateLimitConfig;
+import org.acme.ratelimit.RateLimiter;
+import org.acme.ratelimit.TokenBucket;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão do {@link RateLimiter} (o que o {@code RateLimitingFilter} chama a
+ * cada requisição) com 8 threads: todas no mesmo cliente, que disputam o
+ * mesmo balde, ou espalhadas por muitos clientes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    private RateLimiter rateLimiter;
+    private String[] clients;
+
+    @Setup
+    public void setup() {
+        rateLimiter = new RateLimiter(new BenchmarkConfig());
+        clients = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "ip:10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public TokenBucket.Decision hotClient() {
+        return rateLimiter.tryConsume("key:mobile-app", 1, false);
+    }
+
+    @Benchmark
+    public TokenBucket.Decision spreadClients() {
+        String client = clients[ThreadLocalRandom.current().nextInt(CLIENTS)];
+        return rateLimiter.tryConsume(client, rateLimiter.cost("GET", "/v1/jogos/search"), false);
+    }
+
+    // Mesmos valores padrão do application.properties
+    static class BenchmarkConfig implements RateLimitConfig {
+        @Override
+        public int capacity() {
+            return 120;
+        }
+
+        @Override
+        public Duration refillPeriod() {
+            return Duration.ofMinutes(1);
+        }
+
+        @Override
+        public int readCost() {
+            return 1;
+        }
+
+        @Override
+        public int writeCost() {
+            return 10;
+        }
+
+        @Override
+        public Map<String, Integer> routeCost() {
+            return Map.of("/v1/jogos/search", 2, "/v1/jogos/bulk", 60);
+        }
+
+        @Override
+        public long maxClients() {
+            return 100_000;
+        }
+
+        @Override
+        public String apiKeyHeader() {
+            return "X-Api-Key";
+        }
+
+        @Override
+        public Optional<Set<String>> apiKeys() {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.acme.benchmarks;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.acme.Jogo;
+import org.acme.SearchJogoResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Custo de serializar uma página de pesquisa e a lista completa do catálogo em
+ * JSON, CBOR e Smile, com e sem gzip. O tamanho de cada combinação é impresso
+ * no setup, para comparar bytes trafegados junto com a vazão.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    @Param({"none", "gzip"})
+    String compression;
+
+    private ObjectMapper mapper;
+    private SearchJogoResponse page;
+    private List<Jogo> catalog;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper json = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        // Mesma derivação do BinaryFormats da aplicação
+        mapper = switch (format) {
+            case "cbor" -> json.copyWith(new CBORFactory());
+            case "smile" -> json.copyWith(new SmileFactory());
+            default -> json;
+        };
+
+        page = new SearchJogoResponse();
+        for (int i = 1; i <= 20; i++) {
+            page.Jogos.add(jogo(i));
+        }
+        page.TotalJogos = 10_000;
+        page.TotalPages = 500;
+        page.HasMore = true;
+        page.NextPage = "/v1/jogos/search?sort=titulo&direction=asc&size=20&pagination=cursor&cursor=dGl0dWxvfEFzY2VuZGluZ3w0Mnw9WmVsZGE";
+
+        catalog = new ArrayList<>();
+        for (int i = 1; i <= 10_000; i++) {
+            catalog.add(jogo(i));
+        }
+
+        System.out.printf("%n%s/%s: página=%d bytes, catálogo=%d bytes%n",
+                format, compression, searchPage().length, fullCatalog().length);
+    }
+
+    @Benchmark
+    public byte[] searchPage() throws IOException {
+        return write(page);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public byte[] fullCatalog() throws IOException {
+        return write(catalog);
+    }
+
+    private byte[] write(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        try (OutputStream out = "gzip".equals(compression) ? new GZIPOutputStream(bytes) : bytes) {
+            mapper.writeValue(out, value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Jogo jogo(long id) {
+        Jogo jogo = new Jogo();
+        jogo.id = id;
+        jogo.versao = 0L;
+        jogo.titulo = "The Legend of Zelda: Breath of the Wild " + id;
+        jogo.descricao = "Jogo de ação e aventura em mundo aberto onde Link acorda de um sono de 100 anos.";
+        jogo.anoLancamento = 2017;
+        jogo.generoId = 1 + id % 5;
+        jogo.desenvolvedoraId = 1 + id % 5;
+        return jogo;
+    }
+}
@@ -0,0 +1,251 @@
+package org.acme.benchmarks;
+
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
+import org.acme.Jogo;
+import org.acme.search.FullTextIndex;
+import org.acme.search.KeysetCursor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem e execução das pesquisas contra um H2 em memória com 10k, 100k e
+ * 1M jogos. O SQL é o mesmo que o Hibernate gera para o {@code CatalogSearch}
+ * (OFFSET, keyset, COUNT e o IN por ids vindo do índice textual). As
+ * pesquisas com termo seguem o caminho do {@code CatalogSearch}: ids do
+ * índice, ordenação e paginação no {@link FullTextIndex} e um IN só com os
+ * ids da página.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchQueryBenchmark {
+
+    private static final String[] WORDS = {
+            "zelda", "witcher", "stardew", "resident", "evil", "half", "life", "legend",
+            "wild", "hunt", "valley", "mario", "kart", "souls", "dark", "metroid"};
+
+    private static final String COLUMNS = "id, versao, titulo, descricao, anoLancamento";
+    private static final int PAGE_SIZE = 20;
+    private static final String FULL_TEXT_QUERY = "zel wit";
+
+    @Param({"10000", "100000", "1000000"})
+    int rows;
+
+    private Connection connection;
+    private FullTextIndex index;
+    private String cursorToken;
+    private String deepCursorTitulo;
+    private long deepCursorId;
+
+    @Setup(Level.Trial)
+    public void seed() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:bench-" + rows + ";DB_CLOSE_DELAY=-1");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("drop table if exists Jogo");
+            ddl.execute("create table Jogo (id bigint not null primary key, versao bigint, "
+                    + "titulo varchar(255), descricao varchar(255), anoLancamento integer not null)");
+        }
+
+        index = new FullTextIndex();
+        Random random = new Random(42);
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("insert into Jogo (" + COLUMNS + ") values (?, 0, ?, ?, ?)")) {
+            for (int id = 1; id <= rows; id++) {
+                String titulo = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+                String descricao = "Jogo de " + WORDS[random.nextInt(WORDS.length)];
+                insert.setLong(1, id);
+                insert.setString(2, titulo);
+                insert.setString(3, descricao);
+                int ano = 1980 + random.nextInt(45);
+                insert.setInt(4, ano);
+                insert.addBatch();
+                index.put(id, new FullTextIndex.Document().field(titulo, 2f).field(descricao, 1f)
+                        .sortValue("titulo", titulo).sortValue("anoLancamento", ano));
+                if (id % 1000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+
+        // Cursor no meio da tabela: mesma posição que a página rows/2 do modo OFFSET
+        try (PreparedStatement middle = connection.prepareStatement(
+                "select id, titulo from Jogo order by titulo, id offset ? rows fetch first 1 rows only")) {
+            middle.setInt(1, rows / 2);
+            try (ResultSet rs = middle.executeQuery()) {
+                rs.next();
+                deepCursorId = rs.getLong(1);
+                deepCursorTitulo = rs.getString(2);
+            }
+        }
+
+        Jogo jogo = new Jogo();
+        jogo.id = deepCursorId;
+        jogo.titulo = deepCursorTitulo;
+        cursorToken = KeysetCursor.after(jogo, "titulo", Sort.Direction.Ascending).encode();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("drop table Jogo");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void offsetDeepPage(Blackhole bh) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(
+                "select " + COLUMNS + " from Jogo order by titulo, id offset ? rows fetch first ? rows only")) {
+            query.setInt(1, rows / 2);
+            query.setInt(2, PAGE_SIZE + 1);
+            consume(query, bh);
+        }
+    }
+
+    @Benchmark
+    public void keysetDeepPage(Blackhole bh) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(
+                "select " + COLUMNS + " from Jogo where (titulo > ? or (titulo = ? and id > ?) or titulo is null) "
+                        + "order by titulo nulls last, id fetch first ? rows only")) {
+            query.setString(1, deepCursorTitulo);
+            query.setString(2, deepCursorTitulo);
+            query.setLong(3, deepCursorId);
+            query.setInt(4, PAGE_SIZE + 1);
+            consume(query, bh);
+        }
+    }
+
+    @Benchmark
+    public long countAll() throws SQLException {
+        try (Statement query = connection.createStatement();
+             ResultSet rs = query.executeQuery("select count(*) from Jogo")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * {@code q} + {@code sort=titulo}, primeira página: ids do índice,
+     * ordenados no índice, e um IN com os ids da página.
+     */
+    @Benchmark
+    public void fullTextSortedPage(Blackhole bh) throws SQLException {
+        List<Long> ordered = index.sort(hits(FULL_TEXT_QUERY), "titulo", false, null);
+        selectIn(ordered.subList(0, Math.min(PAGE_SIZE, ordered.size())), bh);
+    }
+
+    /**
+     * Mesma pesquisa na página do meio dos resultados: o custo no banco é o
+     * mesmo da primeira.
+     */
+    @Benchmark
+    public void fullTextSortedDeepPage(Blackhole bh) throws SQLException {
+        List<Long> ordered = index.sort(hits(FULL_TEXT_QUERY), "titulo", false, null);
+        int from = ordered.size() / 2;
+        selectIn(ordered.subList(from, Math.min(from + PAGE_SIZE, ordered.size())), bh);
+    }
+
+    /**
+     * {@code sort=relevance}: a ordem já vem do índice.
+     */
+    @Benchmark
+    public void fullTextRelevancePage(Blackhole bh) throws SQLException {
+        List<Long> ids = hits(FULL_TEXT_QUERY);
+        selectIn(ids.subList(0, Math.min(PAGE_SIZE, ids.size())), bh);
+    }
+
+    /**
+     * Caminho anterior, para comparação: todos os ids no IN e ordenação e
+     * paginação no banco.
+     */
+    @Benchmark
+    public void fullTextAllHitsBound(Blackhole bh) throws SQLException {
+        List<Long> ids = hits(FULL_TEXT_QUERY);
+        if (ids.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder("select " + COLUMNS + " from Jogo where id in (");
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(") order by titulo nulls last, id fetch first ? rows only");
+        try (PreparedStatement query = connection.prepareStatement(sql.toString())) {
+            for (int i = 0; i < ids.size(); i++) {
+                query.setLong(i + 1, ids.get(i));
+            }
+            query.setInt(ids.size() + 1, PAGE_SIZE + 1);
+            consume(query, bh);
+        }
+    }
+
+    @Benchmark
+    public List<FullTextIndex.Hit> fullTextIndexOnly() {
+        return index.search("legend wild");
+    }
+
+    /**
+     * Só a montagem da consulta em modo cursor: decodificar o token, gerar o
+     * predicado HQL e os parâmetros.
+     */
+    @Benchmark
+    public void cursorQueryBuilding(Blackhole bh) {
+        KeysetCursor cursor = KeysetCursor.decode(cursorToken, Jogo.class, "titulo", Sort.Direction.Ascending);
+        bh.consume(cursor.predicate());
+        bh.consume(cursor.bind(new Parameters()));
+        bh.consume(KeysetCursor.sortOf("titulo", Sort.Direction.Ascending));
+    }
+
+    private List<Long> hits(String termo) {
+        List<FullTextIndex.Hit> hits = index.search(termo);
+        List<Long> ids = new ArrayList<>(hits.size());
+        for (FullTextIndex.Hit hit : hits) {
+            ids.add(hit.id);
+        }
+        return ids;
+    }
+
+    // O SearchTarget.findByIds: um IN com os ids da página
+    private void selectIn(List<Long> ids, Blackhole bh) throws SQLException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder("select " + COLUMNS + " from Jogo where id in (");
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(") order by id");
+        try (PreparedStatement query = connection.prepareStatement(sql.toString())) {
+            for (int i = 0; i < ids.size(); i++) {
+                query.setLong(i + 1, ids.get(i));
+            }
+            consume(query, bh);
+        }
+    }
+
+    private static void consume(PreparedStatement query, Blackhole bh) throws SQLException {
+        try (ResultSet rs = query.executeQuery()) {
+            while (rs.next()) {
+                bh.consume(rs.getLong(1));
+                bh.consume(rs.getString(3));
+            }
+        }
+    }
+}
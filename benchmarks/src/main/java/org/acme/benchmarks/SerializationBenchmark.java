@@ -0,0 +1,70 @@
+package org.acme.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.acme.Jogo;
+import org.acme.SearchJogoResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização Jackson de um {@link Jogo} e de uma página de pesquisa, com o
+ * ObjectMapper configurado como o do Quarkus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"4", "100"})
+    int pageSize;
+
+    private ObjectMapper mapper;
+    private Jogo jogo;
+    private SearchJogoResponse page;
+
+    @Setup
+    public void setup() {
+        mapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        jogo = jogo(1);
+        page = new SearchJogoResponse();
+        for (int i = 1; i <= pageSize; i++) {
+            page.Jogos.add(jogo(i));
+        }
+        page.TotalJogos = 10_000;
+        page.TotalPages = 10_000 / pageSize;
+        page.HasMore = true;
+        page.NextPage = "/v1/jogos/search?sort=titulo&direction=asc&size=" + pageSize + "&pagination=cursor&cursor=dGl0dWxvfEFzY2VuZGluZ3w0Mnw9WmVsZGE";
+    }
+
+    @Benchmark
+    public byte[] jogo() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(jogo);
+    }
+
+    @Benchmark
+    public byte[] searchPage() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    private static Jogo jogo(long id) {
+        Jogo jogo = new Jogo();
+        jogo.id = id;
+        jogo.versao = 0L;
+        jogo.titulo = "The Legend of Zelda: Breath of the Wild " + id;
+        jogo.descricao = "Jogo de ação e aventura em mundo aberto onde Link acorda de um sono de 100 anos.";
+        jogo.anoLancamento = 2017;
+        return jogo;
+    }
+}
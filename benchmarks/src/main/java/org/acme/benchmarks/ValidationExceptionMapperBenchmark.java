@@ -0,0 +1,96 @@
+package org.acme.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Valid;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.ws.rs.core.Response;
+import org.acme.Jogo;
+import org.acme.exception.ValidationExceptionMapper;
+import org.acme.exception.ViolationMessages;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resposta 400 (mapeamento e serialização) a partir das violações de um lote
+ * de {@link Jogo}s inválidos, cada um com título vazio, descrição longa e ano
+ * fora da faixa. {@code splitPath} é a formatação anterior, por
+ * {@code toString().split}, para comparação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationExceptionMapperBenchmark {
+
+    // 3, 150 e 1500 violações
+    @Param({"1", "50", "500"})
+    int jogos;
+
+    private ValidationExceptionMapper mapper;
+    private ConstraintViolationException exception;
+    private ObjectMapper json;
+
+    public static class Lote {
+        @Valid
+        public List<Jogo> jogos = new ArrayList<>();
+    }
+
+    @Setup
+    public void setup() {
+        Validator validator = Validation.byDefaultProvider()
+                .configure()
+                .messageInterpolator(new ParameterMessageInterpolator())
+                .buildValidatorFactory()
+                .getValidator();
+
+        Lote lote = new Lote();
+        for (int i = 0; i < jogos; i++) {
+            Jogo jogo = new Jogo();
+            jogo.titulo = "";
+            jogo.descricao = "x".repeat(600);
+            jogo.anoLancamento = 1900;
+            lote.jogos.add(jogo);
+        }
+        Set<ConstraintViolation<Lote>> violations = validator.validate(lote);
+        exception = new ConstraintViolationException(violations);
+
+        mapper = new ValidationExceptionMapper(new ViolationMessages(50));
+        json = new ObjectMapper();
+    }
+
+    @Benchmark
+    public Response toResponse() throws IOException {
+        Response response = mapper.toResponse(exception);
+        json.writeValue(OutputStream.nullOutputStream(), response.getEntity());
+        return response;
+    }
+
+    @Benchmark
+    public List<String> splitPath() throws IOException {
+        List<String> erros = new ArrayList<>();
+        for (ConstraintViolation<?> violation : exception.getConstraintViolations()) {
+            String campo;
+            try {
+                String[] parts = violation.getPropertyPath().toString().split("\\.");
+                campo = parts[parts.length - 1] + ": ";
+            } catch (Exception e) {
+                campo = "";
+            }
+            erros.add(campo + violation.getMessage());
+        }
+        json.writeValue(OutputStream.nullOutputStream(), new ValidationExceptionMapper.ErrorBody(400, "Erro de Validação", erros));
+        return erros;
+    }
+}
@@ -0,0 +1,144 @@
+package org.acme.idempotency;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.acme.format.BinaryFormats;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Vazão do {@link IdempotencyFilter} com 8 threads. {@code firstRequest}
+ * reserva e conclui uma chave nova a cada chamada; {@code replay} disputa a
+ * mesma chave já concluída (o caso de retries em massa). Fica no pacote do
+ * filtro para configurá-lo sem o contêiner CDI.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class IdempotencyFilterBenchmark {
+
+    private static final String REPLAYED_KEY = "replayed";
+
+    private final AtomicLong keys = new AtomicLong();
+    private IdempotencyFilter filter;
+
+    @Setup
+    public void setup() throws IOException {
+        filter = new IdempotencyFilter();
+        filter.inFlightWait = Duration.ZERO;
+        filter.inProgressTimeout = Duration.ofSeconds(30);
+        filter.maxBytes = 64L * 1024 * 1024;
+        filter.compressThreshold = 1024;
+        // Respostas sem corpo: o replay nunca precisa converter formato
+        filter.formats = new BinaryFormats();
+        filter.stores = stub(Instance.class, (name, args) -> "get".equals(name) ? new LocalIdempotencyStore() : null);
+        filter.resourceInfo = stub(ResourceInfo.class, (name, args) -> switch (name) {
+            case "getResourceMethod" -> resourceMethod();
+            case "getResourceClass" -> IdempotencyFilterBenchmark.class;
+            default -> null;
+        });
+        filter.init();
+
+        execute(REPLAYED_KEY);
+    }
+
+    @Benchmark
+    public Object firstRequest() throws IOException {
+        return execute("key-" + keys.incrementAndGet());
+    }
+
+    @Benchmark
+    public Object replay() throws IOException {
+        Request request = new Request(REPLAYED_KEY);
+        filter.filter(request.context);
+        return request.aborted;
+    }
+
+    private Object execute(String key) throws IOException {
+        Request request = new Request(key);
+        filter.filter(request.context);
+        if (request.aborted == null) {
+            ContainerResponseContext response = stub(ContainerResponseContext.class, (name, args) -> switch (name) {
+                case "getStatus" -> 204;
+                case "hasEntity" -> false;
+                case "getStringHeaders" -> new MultivaluedHashMap<String, String>();
+                default -> null;
+            });
+            filter.filter(request.context, response);
+        }
+        return request.aborted;
+    }
+
+    @Idempotent
+    public void idempotentMethod() {
+    }
+
+    private static Method resourceMethod() {
+        try {
+            return IdempotencyFilterBenchmark.class.getMethod("idempotentMethod");
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Request {
+        final Map<String, Object> properties = new HashMap<>();
+        final ContainerRequestContext context;
+        Response aborted;
+
+        Request(String key) {
+            UriInfo uriInfo = stub(UriInfo.class, (name, args) -> "getPath".equals(name) ? "/v1/jogos" : null);
+            this.context = stub(ContainerRequestContext.class, (name, args) -> {
+                switch (name) {
+                    case "getHeaderString":
+                        return key;
+                    case "getMethod":
+                        return "POST";
+                    case "getUriInfo":
+                        return uriInfo;
+                    case "getAcceptableMediaTypes":
+                        return List.of(MediaType.WILDCARD_TYPE);
+                    case "getProperty":
+                        return properties.get((String) args[0]);
+                    case "setProperty":
+                        properties.put((String) args[0], args[1]);
+                        return null;
+                    case "abortWith":
+                        aborted = (Response) args[0];
+                        return null;
+                    default:
+                        return null;
+                }
+            });
+        }
+    }
+
+    interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<?> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(IdempotencyFilterBenchmark.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> handler.invoke(method.getName(), args));
+    }
+}
@@ -0,0 +1,63 @@
+// Pico de buscas contra um fundo constante de leituras por id.
+//
+// Suba a aplicação com o rate limit alto o bastante para não interferir:
+//   RATE_LIMIT_CAPACITY=100000000 java -jar target/quarkus-app/quarkus-run.jar
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e SPIKE_VUS=500 loadtest/admission-spike.js
+//
+// Durante o pico, as buscas excedentes devem receber 503 com Retry-After
+// enquanto o p99 das leituras por id continua estável. Acompanhe
+// catalog_admission_limit e catalog_admission_requests_total em /q/metrics.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const SPIKE_VUS = parseInt(__ENV.SPIKE_VUS || '500');
+
+export const options = {
+    scenarios: {
+        reads: {
+            executor: 'constant-vus',
+            vus: 50,
+            duration: '2m',
+            exec: 'read',
+        },
+        spike: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            startTime: '30s',
+            stages: [
+                { duration: '10s', target: SPIKE_VUS },
+                { duration: '40s', target: SPIKE_VUS },
+                { duration: '10s', target: 0 },
+            ],
+            exec: 'search',
+        },
+    },
+    thresholds: {
+        'http_req_duration{name:getById}': ['p(99)<200'],
+        'http_req_failed{name:getById}': ['rate<0.01'],
+    },
+};
+
+const RESOURCES = ['jogos', 'generos', 'desenvolvedoras'];
+
+function resource() {
+    return RESOURCES[Math.floor(Math.random() * RESOURCES.length)];
+}
+
+export function read() {
+    const res = http.get(`${BASE_URL}/v1/${resource()}/${1 + Math.floor(Math.random() * 5)}`, { tags: { name: 'getById' } });
+    check(res, { 'status 200': (r) => r.status === 200 });
+}
+
+export function search() {
+    const res = http.get(`${BASE_URL}/v1/${resource()}/search?q=a&size=50`, {
+        tags: { name: 'search' },
+        responseCallback: http.expectedStatuses(200, 503),
+    });
+    check(res, {
+        'status 200 ou 503': (r) => r.status === 200 || r.status === 503,
+        '503 com Retry-After': (r) => r.status !== 503 || r.headers['Retry-After'] !== undefined,
+    });
+}
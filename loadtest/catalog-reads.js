@@ -0,0 +1,50 @@
+// Carga de leitura para comparar o worker pool com virtual threads.
+//
+// Suba a aplicação com o rate limit alto o bastante para não interferir:
+//   RATE_LIMIT_CAPACITY=100000000 java -jar target/quarkus-app/quarkus-run.jar
+//   RATE_LIMIT_CAPACITY=100000000 QUARKUS_VIRTUAL_THREADS_ENABLED=true java -jar target/quarkus-app/quarkus-run.jar
+//
+// E rode o mesmo cenário contra cada uma:
+//   k6 run -e BASE_URL=http://localhost:8080 -e MAX_VUS=2000 loadtest/catalog-reads.js
+//
+// Compare, para o mesmo p99, até quantas conexões simultâneas cada modo chega.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MAX_VUS = parseInt(__ENV.MAX_VUS || '1000');
+
+export const options = {
+    scenarios: {
+        reads: {
+            executor: 'ramping-vus',
+            startVUs: 10,
+            stages: [
+                { duration: '30s', target: Math.floor(MAX_VUS / 4) },
+                { duration: '30s', target: Math.floor(MAX_VUS / 2) },
+                { duration: '30s', target: MAX_VUS },
+                { duration: '30s', target: MAX_VUS },
+            ],
+        },
+    },
+    thresholds: {
+        http_req_duration: ['p(99)<500'],
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+const RESOURCES = ['jogos', 'generos', 'desenvolvedoras'];
+
+export default function () {
+    const resource = RESOURCES[Math.floor(Math.random() * RESOURCES.length)];
+    const roll = Math.random();
+    let res;
+    if (roll < 0.5) {
+        res = http.get(`${BASE_URL}/v1/${resource}/${1 + Math.floor(Math.random() * 5)}`, { tags: { name: 'getById' } });
+    } else if (roll < 0.8) {
+        res = http.get(`${BASE_URL}/v1/${resource}/search?q=a&size=10`, { tags: { name: 'search' } });
+    } else {
+        res = http.get(`${BASE_URL}/v1/${resource}`, { tags: { name: 'getAll' } });
+    }
+    check(res, { 'status 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,38 @@
+#!/bin/sh
+# Mede o tempo até a primeira resposta e a memória de cada variante da imagem.
+#
+# Gere as imagens antes:
+#   docker build -t api-catalog-game:jvm .
+#   docker build -f src/main/docker/Dockerfile.native-multistage -t api-catalog-game:native .
+#
+# E rode cada variante:
+#   loadtest/startup-footprint.sh api-catalog-game:jvm                                  (JVM + AppCDS)
+#   EXTRA_RUN_ARGS="-e APPCDS_OPTS=-Xshare:off" loadtest/startup-footprint.sh api-catalog-game:jvm
+#   EXTRA_RUN_ARGS="-e QUARKUS_DATASOURCE_JDBC_URL=jdbc:h2:tcp://..." loadtest/startup-footprint.sh api-catalog-game:native
+#
+# A imagem nativa precisa de um H2 em modo servidor: o H2 embarcado não roda em nativo.
+set -eu
+
+PORT=${PORT:-18080}
+URL="http://localhost:${PORT}/v1/generos"
+EXTRA_RUN_ARGS=${EXTRA_RUN_ARGS:-}
+
+printf '%-40s %12s %16s %14s\n' "imagem" "1a resposta" "Quarkus started" "memória"
+for image in "$@"; do
+    start=$(date +%s%N)
+    # shellcheck disable=SC2086
+    container=$(docker run -d --rm -p "${PORT}:8080" $EXTRA_RUN_ARGS "$image")
+    until curl -sf -o /dev/null "$URL"; do
+        sleep 0.01
+    done
+    first=$(( ($(date +%s%N) - start) / 1000000 ))
+
+    # Algumas leituras para a memória refletir a aplicação em uso, não só a subida
+    for _ in $(seq 1 200); do curl -sf -o /dev/null "$URL"; done
+
+    started=$(docker logs "$container" 2>&1 | sed -n 's/.*started in \([0-9.]*s\).*/\1/p' | head -1)
+    memory=$(docker stats --no-stream --format '{{.MemUsage}}' "$container" | cut -d/ -f1)
+    docker stop "$container" >/dev/null
+
+    printf '%-40s %10sms %16s %14s\n' "$image" "$first" "${started:-?}" "$memory"
+done
@@ -8,13 +8,21 @@ import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import java.time.LocalDate;
 
 @Entity
+@Table(name = "Desenvolvedora", indexes = {
+        @Index(name = "idx_desenvolvedora_nome", columnList = "nome, id"),
+        @Index(name = "idx_desenvolvedora_pais", columnList = "paisDeOrigem, id")})
 public class Desenvolvedora extends PanacheEntityBase {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     @Schema(readOnly = true)
     public Long id;
 
+    // Incrementada pelo Hibernate a cada UPDATE; é o ETag do recurso
+    @Version
+    @Schema(readOnly = true)
+    public Long versao;
+
     @NotBlank(message = "O nome da desenvolvedora é obrigatório")
     public String nome;
 
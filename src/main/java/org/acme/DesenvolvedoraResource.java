@@ -1,13 +1,33 @@
 package org.acme;
 
-import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.panache.common.Parameters;
 import io.quarkus.panache.common.Sort;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriBuilder;
+import org.acme.bulk.BulkImporter;
+import org.acme.bulk.BulkReport;
+import org.acme.cache.EntityCache;
+import org.acme.etag.CatalogETags;
+import org.acme.events.CatalogChange;
+import org.acme.format.BinaryFormats;
 import org.acme.idempotency.Idempotent;
+import org.acme.multiget.IdLookup;
+import org.acme.multiget.MultiGet;
+import org.acme.search.CatalogSearch;
+import org.acme.search.SearchPage;
+import org.acme.search.SearchParams;
+import org.acme.search.SearchTarget;
+import org.acme.search.SortKeys;
+import org.acme.stream.EntityStreamer;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.ParameterIn;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
@@ -17,65 +37,149 @@ import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 
 @Path("/v1/desenvolvedoras")
 @Consumes("application/json")
-@Produces("application/json")
+@Produces({"application/json", BinaryFormats.CBOR, BinaryFormats.SMILE})
 public class DesenvolvedoraResource {
 
+    private static final SearchTarget<Desenvolvedora> SEARCH =
+            new SearchTarget<>(Desenvolvedora.class, "/v1/desenvolvedoras/search", SortKeys.of("nome", "paisDeOrigem"),
+                    Desenvolvedora::find, Desenvolvedora::count, desenvolvedora -> desenvolvedora.id);
+
+    private static final IdLookup<Desenvolvedora> BY_ID =
+            new IdLookup<>(Desenvolvedora.class, ids -> Desenvolvedora.list("id in ?1", ids), desenvolvedora -> desenvolvedora.id);
+
+    @Inject
+    CatalogSearch catalogSearch;
+
+    @Inject
+    EntityCache entityCache;
+
+    @Inject
+    MultiGet multiGet;
+
+    @Inject
+    CatalogETags etags;
+
+    @Inject
+    EntityStreamer streamer;
+
+    @Inject
+    BulkImporter bulkImporter;
+
+    @Inject
+    Event<CatalogChange> changes;
+
     @GET
+    @RunOnVirtualThread
+    @Produces({"application/json", BinaryFormats.CBOR, BinaryFormats.SMILE, EntityStreamer.NDJSON})
     @Operation(summary = "Retorna todas as desenvolvedoras")
     @APIResponse(responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Desenvolvedora.class, type = SchemaType.ARRAY)))
-    public Response getAll() {
-        return Response.ok(Desenvolvedora.listAll()).build();
+    public Response getAll(
+            @Parameter(description = "json: array enviado em chunks direto do cursor do banco; ndjson: uma entidade por linha")
+            @QueryParam("stream") String stream,
+            @Parameter(description = "Ids separados por vírgula: retorna só esses desenvolvedoras, na ordem pedida")
+            @QueryParam("ids") String ids,
+            @Context Request request) {
+        // Revalidação pela versão da tabela, antes de ler qualquer linha
+        EntityTag tag = etags.collection(Desenvolvedora.class);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        if (ids != null) {
+            if (stream != null) {
+                throw new BadRequestException("ids não pode ser combinado com stream.");
+            }
+            return Response.ok(multiGet.findAll(BY_ID, multiGet.parse(ids))).tag(tag).build();
+        }
+        if ("ndjson".equalsIgnoreCase(stream)) {
+            return Response.ok(streamer.ndjson(Desenvolvedora.class, () -> Desenvolvedora.findAll(Sort.by("id"))), EntityStreamer.NDJSON).tag(tag).build();
+        }
+        if ("json".equalsIgnoreCase(stream)) {
+            return Response.ok(streamer.jsonArray(Desenvolvedora.class, () -> Desenvolvedora.findAll(Sort.by("id"))), "application/json").tag(tag).build();
+        }
+        return Response.ok(entityCache.all(Desenvolvedora.class, tag.getValue(), Desenvolvedora::listAll)).tag(tag).build();
     }
 
     @GET
+    @RunOnVirtualThread
     @Path("{id}")
     @Operation(summary = "Retorna uma desenvolvedora por ID")
     @APIResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = Desenvolvedora.class)))
     @APIResponse(responseCode = "404", description = "Não encontrada")
-    public Response getById(@PathParam("id") Long id) {
-        Desenvolvedora entity = Desenvolvedora.findById(id);
+    public Response getById(@PathParam("id") Long id, @Context Request request) {
+        Desenvolvedora entity = multiGet.find(BY_ID, id);
         if (entity == null) {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
-        return Response.ok(entity).build();
+        EntityTag tag = CatalogETags.of(entity.versao);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        return Response.ok(entity).tag(tag).build();
     }
 
     @GET
+    @RunOnVirtualThread
+    @Path("{id}/jogos")
+    @Operation(summary = "Lista os jogos de uma desenvolvedora")
+    @APIResponse(responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = JogoDetalhe.class, type = SchemaType.ARRAY)))
+    @APIResponse(responseCode = "404", description = "Não encontrado")
+    public Response getJogos(@PathParam("id") Long id,
+                             @QueryParam("page") @DefaultValue("0") int page,
+                             @Parameter(description = "Jogos por página (máximo " + JogoFetchPlan.MAX_EXPAND_PAGE + ")")
+                             @QueryParam("size") @DefaultValue("20") int size,
+                             @Parameter(description = "Associações incluídas em cada jogo, separadas por vírgula: genero, desenvolvedora")
+                             @QueryParam("expand") String expand,
+                             @Context Request request) {
+        JogoFetchPlan plan = JogoFetchPlan.parse(expand);
+        // Existência antes do ETag: sem expand o ETag não cobre a tabela do pai, e um pai
+        // apagado sem jogos responderia 304 em vez de 404
+        if (entityCache.get(Desenvolvedora.class, id, Desenvolvedora::findById) == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        EntityTag tag = etags.collection(plan.types());
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+
+        // Uma consulta para a página inteira, com as associações pedidas no mesmo SELECT
+        List<Jogo> jogos = plan.find("desenvolvedoraId = :id", Sort.by("id"), Parameters.with("id", id))
+                .page(Math.max(page, 0), Math.min(Math.max(size, 1), JogoFetchPlan.MAX_EXPAND_PAGE))
+                .list();
+        return Response.ok(plan.detalhes(jogos)).tag(tag).build();
+    }
+
+    @GET
+    @RunOnVirtualThread
     @Path("/search")
     @Operation(summary = "Pesquisa desenvolvedoras")
     @APIResponse(responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Desenvolvedora.class, type = SchemaType.ARRAY)))
-    public Response search(
-            @QueryParam("q") String q,
-            @QueryParam("sort") @DefaultValue("id") String sort,
-            @QueryParam("direction") @DefaultValue("asc") String direction,
-            @QueryParam("page") @DefaultValue("0") int page,
-            @QueryParam("size") @DefaultValue("4") int size
-    ){
-        Sort sortObj = Sort.by(sort, "desc".equalsIgnoreCase(direction) ? Sort.Direction.Descending : Sort.Direction.Ascending);
-        PanacheQuery<Desenvolvedora> query;
-        if (q == null || q.isBlank()) {
-            query = Desenvolvedora.findAll(sortObj);
-        } else {
-            // Busca por nome OU país de origem (case insensitive)
-            query = Desenvolvedora.find("lower(nome) like ?1 or lower(paisDeOrigem) like ?1", sortObj, "%" + q.toLowerCase() + "%");
+    public Response search(@BeanParam SearchParams params, @Context Request request) {
+        EntityTag tag = etags.collection(Desenvolvedora.class);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.build();
         }
-        List<Desenvolvedora> desenvolvedoras = query.page(Math.max(page, 0), size).list();
+
+        SearchPage<Desenvolvedora> pagina = catalogSearch.search(SEARCH, params);
 
         var response = new SearchDesenvolvedoraResponse();
-        response.Desenvolvedoras = desenvolvedoras;
-        response.TotalDesenvolvedoras = (int) query.count();
-        response.TotalPages = query.pageCount();
-        response.HasMore = page < query.pageCount() - 1;
-        response.NextPage = response.HasMore ? UriBuilder.fromPath("/v1/desenvolvedoras/search").queryParam("q", q).queryParam("page", page + 1).queryParam("size", size).build().toString() : "";
+        response.Desenvolvedoras = pagina.items;
+        response.TotalDesenvolvedoras = pagina.total;
+        response.TotalPages = pagina.totalPages;
+        response.HasMore = pagina.hasMore;
+        response.NextPage = pagina.nextPage;
 
-        return Response.ok(response).build();
+        return Response.ok(response).tag(tag).build();
     }
-
     @POST
     @Transactional
     @Idempotent
@@ -85,8 +189,21 @@ public class DesenvolvedoraResource {
     @APIResponse(responseCode = "200", description = "Replay (Idempotente)", headers = @Header(name = "X-Idempotency-Status", description = "IDEMPOTENT_REPLAY"))
     public Response insert(@Valid Desenvolvedora desenvolvedora) {
         Desenvolvedora.persist(desenvolvedora);
+        changes.fire(CatalogChange.created(Desenvolvedora.class, desenvolvedora.id, desenvolvedora));
         URI location = UriBuilder.fromPath("/v1/desenvolvedoras/{id}").build(desenvolvedora.id);
-        return Response.created(location).entity(desenvolvedora).build();
+        return Response.created(location).entity(desenvolvedora).tag(CatalogETags.of(desenvolvedora.versao)).build();
+    }
+
+    @POST
+    @Path("/bulk")
+    @Consumes({"application/json", EntityStreamer.NDJSON})
+    @Idempotent
+    @Operation(summary = "Cadastra desenvolvedoras em lote", description = "Aceita um array JSON ou NDJSON. Os itens válidos são gravados em chunks com INSERTs em batch; a resposta traz o resultado de cada item")
+    @Parameter(name = "X-Idempotency-Key", in = ParameterIn.HEADER, required = true, description = "Chave única para garantir idempotência")
+    @APIResponse(responseCode = "200", description = "Relatório por item", content = @Content(schema = @Schema(implementation = BulkReport.class)))
+    public Response bulkInsert(InputStream body) {
+        BulkReport report = bulkImporter.importAll(Desenvolvedora.class, body, desenvolvedora -> desenvolvedora.id);
+        return Response.ok(report).build();
     }
 
     @PUT
@@ -95,17 +212,26 @@ public class DesenvolvedoraResource {
     @Idempotent
     @Operation(summary = "Atualiza uma desenvolvedora")
     @Parameter(name = "X-Idempotency-Key", in = ParameterIn.HEADER, required = true)
-    public Response update(@PathParam("id") Long id, @Valid Desenvolvedora novaDesenvolvedora) {
+    @Parameter(name = "If-Match", in = ParameterIn.HEADER, description = "ETag da versão conhecida; se o registro mudou desde então a resposta é 412")
+    @APIResponse(responseCode = "412", description = "O registro foi alterado desde a versão do If-Match")
+    public Response update(@PathParam("id") Long id, @Valid Desenvolvedora novaDesenvolvedora, @Context Request request) {
         Desenvolvedora entity = Desenvolvedora.findById(id);
         if (entity == null) {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
+        Response.ResponseBuilder preconditionFailed = request.evaluatePreconditions(CatalogETags.of(entity.versao));
+        if (preconditionFailed != null) {
+            return preconditionFailed.build();
+        }
 
         entity.nome = novaDesenvolvedora.nome;
         entity.dataDeFundacao = novaDesenvolvedora.dataDeFundacao;
         entity.paisDeOrigem = novaDesenvolvedora.paisDeOrigem;
 
-        return Response.ok(entity).build();
+        // Grava agora para a resposta já trazer a versão nova
+        Desenvolvedora.flush();
+        changes.fire(CatalogChange.updated(Desenvolvedora.class, id, entity));
+        return Response.ok(entity).tag(CatalogETags.of(entity.versao)).build();
     }
 
     @DELETE
@@ -114,11 +240,21 @@ public class DesenvolvedoraResource {
     @Idempotent
     @Operation(summary = "Deleta uma desenvolvedora")
     @Parameter(name = "X-Idempotency-Key", in = ParameterIn.HEADER, required = true)
-    public Response delete(@PathParam("id") Long id) {
-        boolean deleted = Desenvolvedora.deleteById(id);
-        if (!deleted) {
+    @Parameter(name = "If-Match", in = ParameterIn.HEADER, description = "ETag da versão conhecida; se o registro mudou desde então a resposta é 412")
+    @APIResponse(responseCode = "412", description = "O registro foi alterado desde a versão do If-Match")
+    public Response delete(@PathParam("id") Long id, @Context Request request) {
+        Desenvolvedora entity = Desenvolvedora.findById(id);
+        if (entity == null) {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
+        Response.ResponseBuilder preconditionFailed = request.evaluatePreconditions(CatalogETags.of(entity.versao));
+        if (preconditionFailed != null) {
+            return preconditionFailed.build();
+        }
+        // delete() pela entidade, e não deleteById, para o Hibernate conferir a versão
+        entity.delete();
+        Desenvolvedora.flush();
+        changes.fire(CatalogChange.deleted(Desenvolvedora.class, id));
         return Response.noContent().build();
     }
 }
\ No newline at end of file
@@ -7,13 +7,19 @@ import jakarta.validation.constraints.Size;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
 @Entity
+@Table(name = "Genero", indexes = @Index(name = "idx_genero_nome", columnList = "nome, id"))
 public class Genero extends PanacheEntityBase {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     @Schema(readOnly = true)
     public Long id;
 
+    // Incrementada pelo Hibernate a cada UPDATE; é o ETag do recurso
+    @Version
+    @Schema(readOnly = true)
+    public Long versao;
+
     @NotBlank(message = "O nome do gênero é obrigatório")
     @Size(max = 50, message = "O nome deve ter no máximo 50 caracteres")
     public String nome;
@@ -1,5 +1,6 @@
 package org.acme;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
@@ -8,13 +9,23 @@ import jakarta.validation.constraints.Size;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
 @Entity
+@Table(name = "Jogo", indexes = {
+        @Index(name = "idx_jogo_genero", columnList = "genero_id"),
+        @Index(name = "idx_jogo_desenvolvedora", columnList = "desenvolvedora_id"),
+        @Index(name = "idx_jogo_titulo", columnList = "titulo, id"),
+        @Index(name = "idx_jogo_ano", columnList = "anoLancamento, id")})
 public class Jogo extends PanacheEntityBase {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     @Schema(readOnly = true)
     public Long id;
 
+    // Incrementada pelo Hibernate a cada UPDATE; é o ETag do recurso
+    @Version
+    @Schema(readOnly = true)
+    public Long versao;
+
     @NotBlank(message = "O título do jogo é obrigatório")
     @Size(max = 100, message = "O título deve ter no máximo 100 caracteres")
     public String titulo;
@@ -25,6 +36,26 @@ public class Jogo extends PanacheEntityBase {
     @Min(value = 1950, message = "O ano de lançamento deve ser válido (a partir de 1950)")
     public int anoLancamento;
 
+    // As chaves estrangeiras são gravadas pelos ids; as associações abaixo são só leitura
+    @Column(name = "genero_id")
+    @Schema(description = "Id do gênero do jogo")
+    public Long generoId;
+
+    @Column(name = "desenvolvedora_id")
+    @Schema(description = "Id da desenvolvedora do jogo")
+    public Long desenvolvedoraId;
+
+    // Carregadas só sob demanda (?expand=); ver JogoFetchPlan
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "genero_id", insertable = false, updatable = false)
+    public Genero genero;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "desenvolvedora_id", insertable = false, updatable = false)
+    public Desenvolvedora desenvolvedora;
+
     // Construtor padrão
     public Jogo() {}
 }
\ No newline at end of file
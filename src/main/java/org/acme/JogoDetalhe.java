@@ -0,0 +1,41 @@
+package org.acme;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Representação de um jogo com as associações expandidas. Sem expand, o JSON
+ * é o mesmo do {@link Jogo}.
+ */
+public class JogoDetalhe {
+    public Long id;
+    public Long versao;
+    public String titulo;
+    public String descricao;
+    public int anoLancamento;
+    public Long generoId;
+    public Long desenvolvedoraId;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Genero genero;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Desenvolvedora desenvolvedora;
+
+    public static JogoDetalhe of(Jogo jogo, JogoFetchPlan plan) {
+        JogoDetalhe detalhe = new JogoDetalhe();
+        detalhe.id = jogo.id;
+        detalhe.versao = jogo.versao;
+        detalhe.titulo = jogo.titulo;
+        detalhe.descricao = jogo.descricao;
+        detalhe.anoLancamento = jogo.anoLancamento;
+        detalhe.generoId = jogo.generoId;
+        detalhe.desenvolvedoraId = jogo.desenvolvedoraId;
+        if (plan.expand.contains(JogoFetchPlan.GENERO)) {
+            detalhe.genero = jogo.genero;
+        }
+        if (plan.expand.contains(JogoFetchPlan.DESENVOLVEDORA)) {
+            detalhe.desenvolvedora = jogo.desenvolvedora;
+        }
+        return detalhe;
+    }
+}
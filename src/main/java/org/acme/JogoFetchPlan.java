@@ -0,0 +1,115 @@
+package org.acme;
+
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
+import jakarta.persistence.EntityGraph;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.core.EntityTag;
+import org.acme.etag.CatalogETags;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Plano de busca dos jogos com as associações pedidas em {@code ?expand=}.
+ * As associações entram no mesmo SELECT por um entity graph, então a
+ * quantidade de consultas não depende do tamanho da página.
+ */
+public final class JogoFetchPlan {
+
+    public static final String GENERO = "genero";
+    public static final String DESENVOLVEDORA = "desenvolvedora";
+
+    // Maior página das listas de jogos carregadas pelo plano
+    public static final int MAX_EXPAND_PAGE = 500;
+
+    private static final String FETCH_GRAPH_HINT = "jakarta.persistence.fetchgraph";
+
+    public final Set<String> expand;
+
+    private JogoFetchPlan(Set<String> expand) {
+        this.expand = expand;
+    }
+
+    /**
+     * Lê o parâmetro {@code expand} (lista separada por vírgulas).
+     */
+    public static JogoFetchPlan parse(String expand) {
+        Set<String> values = new LinkedHashSet<>();
+        if (expand != null) {
+            for (String value : expand.split(",")) {
+                String trimmed = value.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                if (!GENERO.equals(trimmed) && !DESENVOLVEDORA.equals(trimmed)) {
+                    throw new BadRequestException("expand inválido: " + trimmed + ". Valores aceitos: genero, desenvolvedora.");
+                }
+                values.add(trimmed);
+            }
+        }
+        return new JogoFetchPlan(values);
+    }
+
+    public boolean isEmpty() {
+        return expand.isEmpty();
+    }
+
+    /**
+     * Tipos cujo estado aparece na resposta, para o ETag de coleção.
+     */
+    public Class<?>[] types() {
+        List<Class<?>> types = new ArrayList<>();
+        types.add(Jogo.class);
+        if (expand.contains(GENERO)) {
+            types.add(Genero.class);
+        }
+        if (expand.contains(DESENVOLVEDORA)) {
+            types.add(Desenvolvedora.class);
+        }
+        return types.toArray(new Class<?>[0]);
+    }
+
+    /**
+     * ETag de um jogo expandido: muda quando o jogo ou uma associação incluída muda.
+     */
+    public EntityTag etag(Jogo jogo) {
+        List<Long> versoes = new ArrayList<>();
+        versoes.add(jogo.versao);
+        if (expand.contains(GENERO)) {
+            versoes.add(jogo.genero == null ? null : jogo.genero.versao);
+        }
+        if (expand.contains(DESENVOLVEDORA)) {
+            versoes.add(jogo.desenvolvedora == null ? null : jogo.desenvolvedora.versao);
+        }
+        return CatalogETags.of(versoes.toArray(new Long[0]));
+    }
+
+    public PanacheQuery<Jogo> find(String query, Sort sort, Parameters params) {
+        return apply(Jogo.find(query, sort, params));
+    }
+
+    public PanacheQuery<Jogo> findAll(Sort sort) {
+        return apply(Jogo.findAll(sort));
+    }
+
+    public List<JogoDetalhe> detalhes(List<Jogo> jogos) {
+        List<JogoDetalhe> detalhes = new ArrayList<>(jogos.size());
+        for (Jogo jogo : jogos) {
+            detalhes.add(JogoDetalhe.of(jogo, this));
+        }
+        return detalhes;
+    }
+
+    private PanacheQuery<Jogo> apply(PanacheQuery<Jogo> query) {
+        if (expand.isEmpty()) {
+            return query;
+        }
+        EntityGraph<Jogo> graph = Jogo.getEntityManager().createEntityGraph(Jogo.class);
+        graph.addAttributeNodes(expand.toArray(new String[0]));
+        return query.withHint(FETCH_GRAPH_HINT, graph);
+    }
+}
@@ -0,0 +1,31 @@
+package org.acme;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Confere se o gênero e a desenvolvedora de um jogo existem. Gênero ou
+ * desenvolvedora inexistente é erro de validação (400), não violação de FK no
+ * commit. A existência de cada id é lembrada pela instância, então um lote
+ * com muitos jogos do mesmo gênero faz uma consulta por id distinto.
+ */
+final class JogoReferencias {
+
+    private final Map<Long, Boolean> generos = new HashMap<>();
+    private final Map<Long, Boolean> desenvolvedoras = new HashMap<>();
+
+    List<String> erros(Jogo jogo) {
+        List<String> erros = new ArrayList<>(2);
+        if (jogo.generoId != null
+                && !generos.computeIfAbsent(jogo.generoId, id -> Genero.count("id", id) > 0)) {
+            erros.add("generoId: gênero " + jogo.generoId + " não encontrado");
+        }
+        if (jogo.desenvolvedoraId != null
+                && !desenvolvedoras.computeIfAbsent(jogo.desenvolvedoraId, id -> Desenvolvedora.count("id", id) > 0)) {
+            erros.add("desenvolvedoraId: desenvolvedora " + jogo.desenvolvedoraId + " não encontrada");
+        }
+        return erros;
+    }
+}
@@ -1,13 +1,35 @@
 package org.acme;
 
-import io.quarkus.hibernate.orm.panache.PanacheQuery; // Import necessário
-import io.quarkus.panache.common.Sort; // Import necessário
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriBuilder;
+import org.acme.bulk.BulkImporter;
+import org.acme.bulk.BulkReport;
+import org.acme.cache.EntityCache;
+import org.acme.etag.CatalogETags;
+import org.acme.events.CatalogChange;
+import org.acme.exception.ValidationExceptionMapper;
+import org.acme.facets.JogoFacets;
+import org.acme.format.BinaryFormats;
 import org.acme.idempotency.Idempotent;
+import org.acme.multiget.IdLookup;
+import org.acme.multiget.MultiGet;
+import org.acme.search.CatalogSearch;
+import org.acme.search.SearchPage;
+import org.acme.search.SearchParams;
+import org.acme.search.SearchTarget;
+import org.acme.search.SortKeys;
+import org.acme.stream.EntityStreamer;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.ParameterIn;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
@@ -17,64 +39,154 @@ import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 
+import java.io.InputStream;
 import java.net.URI;
-import java.util.List; // Import necessário
+import java.util.List;
 
 @Path("/v1/jogos")
 @Consumes("application/json")
-@Produces("application/json")
+@Produces({"application/json", BinaryFormats.CBOR, BinaryFormats.SMILE})
 public class JogoResource {
 
+    private static final SearchTarget<Jogo> SEARCH =
+            new SearchTarget<>(Jogo.class, "/v1/jogos/search", SortKeys.of("titulo", "anoLancamento"),
+                    Jogo::find, Jogo::count, jogo -> jogo.id);
+
+    private static final IdLookup<Jogo> BY_ID =
+            new IdLookup<>(Jogo.class, ids -> Jogo.list("id in ?1", ids), jogo -> jogo.id);
+
+    @Inject
+    CatalogSearch catalogSearch;
+
+    @Inject
+    EntityCache entityCache;
+
+    @Inject
+    MultiGet multiGet;
+
+    @Inject
+    CatalogETags etags;
+
+    @Inject
+    JogoFacets facets;
+
+    @Inject
+    EntityStreamer streamer;
+
+    @Inject
+    BulkImporter bulkImporter;
+
+    @Inject
+    Event<CatalogChange> changes;
+
     @GET
+    @RunOnVirtualThread
+    @Produces({"application/json", BinaryFormats.CBOR, BinaryFormats.SMILE, EntityStreamer.NDJSON})
     @Operation(summary = "Retorna todos os jogos")
     @APIResponse(responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Jogo.class, type = SchemaType.ARRAY)))
-    public Response getAll() {
-        return Response.ok(Jogo.listAll()).build();
+    public Response getAll(
+            @Parameter(description = "json: array enviado em chunks direto do cursor do banco; ndjson: uma entidade por linha")
+            @QueryParam("stream") String stream,
+            @Parameter(description = "Associações incluídas em cada jogo, separadas por vírgula: genero, desenvolvedora")
+            @QueryParam("expand") String expand,
+            @Parameter(description = "Ids separados por vírgula: retorna só esses jogos, na ordem pedida")
+            @QueryParam("ids") String ids,
+            @Parameter(description = "Com expand, a lista é paginada: índice da página")
+            @QueryParam("page") @DefaultValue("0") int page,
+            @Parameter(description = "Com expand, a lista é paginada: jogos por página (máximo " + JogoFetchPlan.MAX_EXPAND_PAGE + ")")
+            @QueryParam("size") @DefaultValue("20") int size,
+            @Context Request request) {
+        JogoFetchPlan plan = JogoFetchPlan.parse(expand);
+        // Revalidação pela versão das tabelas, antes de ler qualquer linha
+        EntityTag tag = etags.collection(plan.types());
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        if (ids != null) {
+            if (stream != null) {
+                throw new BadRequestException("ids não pode ser combinado com stream.");
+            }
+            List<Long> requested = multiGet.parse(ids);
+            if (plan.isEmpty()) {
+                return Response.ok(multiGet.findAll(BY_ID, requested)).tag(tag).build();
+            }
+            List<Jogo> jogos = plan.find("id in :ids", Sort.by("id"), Parameters.with("ids", requested)).list();
+            return Response.ok(plan.detalhes(MultiGet.inOrder(requested, jogos, jogo -> jogo.id))).tag(tag).build();
+        }
+        if (!plan.isEmpty()) {
+            if (stream != null) {
+                throw new BadRequestException("expand não pode ser combinado com stream.");
+            }
+            // Com as associações no mesmo SELECT a resposta não vem do cache nem do streaming: pagina
+            List<Jogo> jogos = plan.findAll(Sort.by("id"))
+                    .page(Math.max(page, 0), Math.min(Math.max(size, 1), JogoFetchPlan.MAX_EXPAND_PAGE))
+                    .list();
+            return Response.ok(plan.detalhes(jogos)).tag(tag).build();
+        }
+        if ("ndjson".equalsIgnoreCase(stream)) {
+            return Response.ok(streamer.ndjson(Jogo.class, () -> Jogo.findAll(Sort.by("id"))), EntityStreamer.NDJSON).tag(tag).build();
+        }
+        if ("json".equalsIgnoreCase(stream)) {
+            return Response.ok(streamer.jsonArray(Jogo.class, () -> Jogo.findAll(Sort.by("id"))), "application/json").tag(tag).build();
+        }
+        return Response.ok(entityCache.all(Jogo.class, tag.getValue(), Jogo::listAll)).tag(tag).build();
     }
 
     @GET
+    @RunOnVirtualThread
     @Path("{id}")
     @Operation(summary = "Retorna um jogo por ID")
-    @APIResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = Jogo.class)))
+    @APIResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = JogoDetalhe.class)))
     @APIResponse(responseCode = "404", description = "Não encontrado")
-    public Response getById(@PathParam("id") Long id) {
-        Jogo entity = Jogo.findById(id);
+    public Response getById(@PathParam("id") Long id,
+                            @Parameter(description = "Associações incluídas, separadas por vírgula: genero, desenvolvedora")
+                            @QueryParam("expand") String expand,
+                            @Context Request request) {
+        JogoFetchPlan plan = JogoFetchPlan.parse(expand);
+        // Com expand, um único SELECT com as associações; sem expand, o cache de entidades
+        Jogo entity = plan.isEmpty()
+                ? multiGet.find(BY_ID, id)
+                : plan.find("id = :id", Sort.by("id"), Parameters.with("id", id)).firstResult();
         if (entity == null) {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
-        return Response.ok(entity).build();
+        EntityTag tag = plan.etag(entity);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        return Response.ok(plan.isEmpty() ? entity : JogoDetalhe.of(entity, plan)).tag(tag).build();
     }
 
     // --- NOVO MÉTODO DE BUSCA (SEARCH) ---
     @GET
+    @RunOnVirtualThread
     @Path("/search")
     @Operation(summary = "Pesquisa jogos")
-    @APIResponse(responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Jogo.class, type = SchemaType.ARRAY)))
-    public Response search(
-            @QueryParam("q") String q,
-            @QueryParam("sort") @DefaultValue("id") String sort,
-            @QueryParam("direction") @DefaultValue("asc") String direction,
-            @QueryParam("page") @DefaultValue("0") int page,
-            @QueryParam("size") @DefaultValue("4") int size
-    ){
-        Sort sortObj = Sort.by(sort, "desc".equalsIgnoreCase(direction) ? Sort.Direction.Descending : Sort.Direction.Ascending);
-        PanacheQuery<Jogo> query;
-        if (q == null || q.isBlank()) {
-            query = Jogo.findAll(sortObj);
-        } else {
-            // Busca por título ou descrição (case insensitive)
-            query = Jogo.find("lower(titulo) like ?1 or lower(descricao) like ?1", sortObj, "%" + q.toLowerCase() + "%");
+    @APIResponse(responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SearchJogoResponse.class)))
+    public Response search(@BeanParam SearchParams params,
+                           @Parameter(description = "Ano de lançamento mínimo (inclusive)") @QueryParam("anoMin") Integer anoMin,
+                           @Parameter(description = "Ano de lançamento máximo (inclusive)") @QueryParam("anoMax") Integer anoMax,
+                           @Context Request request) {
+        // As facetas mostram nomes de gêneros e países, então entram no ETag
+        EntityTag tag = etags.collection(Jogo.class, Genero.class, Desenvolvedora.class);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.build();
         }
-        List<Jogo> jogos = query.page(Math.max(page, 0), size).list();
+
+        SearchPage<Jogo> pagina = catalogSearch.search(SEARCH, params, facets.anoEntre(anoMin, anoMax));
 
         var response = new SearchJogoResponse();
-        response.Jogos = jogos;
-        response.TotalJogos = query.count();
-        response.TotalPages = query.pageCount();
-        response.HasMore = page < query.pageCount() - 1;
-        response.NextPage = response.HasMore ? UriBuilder.fromPath("/v1/jogos/search").queryParam("q", q).queryParam("page", page + 1).queryParam("size", size).build().toString() : "";
+        response.Jogos = pagina.items;
+        response.TotalJogos = pagina.total;
+        response.TotalPages = pagina.totalPages;
+        response.HasMore = pagina.hasMore;
+        response.NextPage = pagina.nextPage;
+        response.Facets = facets.count(pagina.matchedIds, anoMin, anoMax);
 
-        return Response.ok(response).build();
+        return Response.ok(response).tag(tag).build();
     }
     // -------------------------------------
 
@@ -86,9 +198,26 @@ public class JogoResource {
     @APIResponse(responseCode = "201", description = "Criado com sucesso", content = @Content(schema = @Schema(implementation = Jogo.class)))
     @APIResponse(responseCode = "200", description = "Replay (Idempotente)", headers = @Header(name = "X-Idempotency-Status", description = "IDEMPOTENT_REPLAY"))
     public Response insert(@Valid Jogo jogo) {
+        Response invalid = referenciasInvalidas(jogo);
+        if (invalid != null) {
+            return invalid;
+        }
         Jogo.persist(jogo);
+        changes.fire(CatalogChange.created(Jogo.class, jogo.id, jogo));
         URI location = UriBuilder.fromPath("/v1/jogos/{id}").build(jogo.id);
-        return Response.created(location).entity(jogo).build();
+        return Response.created(location).entity(jogo).tag(CatalogETags.of(jogo.versao)).build();
+    }
+
+    @POST
+    @Path("/bulk")
+    @Consumes({"application/json", EntityStreamer.NDJSON})
+    @Idempotent
+    @Operation(summary = "Cadastra jogos em lote", description = "Aceita um array JSON ou NDJSON. Os itens válidos são gravados em chunks com INSERTs em batch; a resposta traz o resultado de cada item")
+    @Parameter(name = "X-Idempotency-Key", in = ParameterIn.HEADER, required = true, description = "Chave única para garantir idempotência")
+    @APIResponse(responseCode = "200", description = "Relatório por item", content = @Content(schema = @Schema(implementation = BulkReport.class)))
+    public Response bulkInsert(InputStream body) {
+        BulkReport report = bulkImporter.importAll(Jogo.class, body, jogo -> jogo.id, new JogoReferencias()::erros);
+        return Response.ok(report).build();
     }
 
     @PUT
@@ -97,17 +226,33 @@ public class JogoResource {
     @Idempotent
     @Operation(summary = "Atualiza um jogo")
     @Parameter(name = "X-Idempotency-Key", in = ParameterIn.HEADER, required = true)
-    public Response update(@PathParam("id") Long id, @Valid Jogo novoJogo) {
+    @Parameter(name = "If-Match", in = ParameterIn.HEADER, description = "ETag da versão conhecida; se o registro mudou desde então a resposta é 412")
+    @APIResponse(responseCode = "412", description = "O registro foi alterado desde a versão do If-Match")
+    public Response update(@PathParam("id") Long id, @Valid Jogo novoJogo, @Context Request request) {
         Jogo entity = Jogo.findById(id);
         if (entity == null) {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
+        Response.ResponseBuilder preconditionFailed = request.evaluatePreconditions(CatalogETags.of(entity.versao));
+        if (preconditionFailed != null) {
+            return preconditionFailed.build();
+        }
+
+        Response invalid = referenciasInvalidas(novoJogo);
+        if (invalid != null) {
+            return invalid;
+        }
 
         entity.titulo = novoJogo.titulo;
         entity.descricao = novoJogo.descricao;
         entity.anoLancamento = novoJogo.anoLancamento;
+        entity.generoId = novoJogo.generoId;
+        entity.desenvolvedoraId = novoJogo.desenvolvedoraId;
 
-        return Response.ok(entity).build();
+        // Grava agora para a resposta já trazer a versão nova
+        Jogo.flush();
+        changes.fire(CatalogChange.updated(Jogo.class, id, entity));
+        return Response.ok(entity).tag(CatalogETags.of(entity.versao)).build();
     }
 
     @DELETE
@@ -116,11 +261,31 @@ public class JogoResource {
     @Idempotent
     @Operation(summary = "Deleta um jogo")
     @Parameter(name = "X-Idempotency-Key", in = ParameterIn.HEADER, required = true)
-    public Response delete(@PathParam("id") Long id) {
-        boolean deleted = Jogo.deleteById(id);
-        if (!deleted) {
+    @Parameter(name = "If-Match", in = ParameterIn.HEADER, description = "ETag da versão conhecida; se o registro mudou desde então a resposta é 412")
+    @APIResponse(responseCode = "412", description = "O registro foi alterado desde a versão do If-Match")
+    public Response delete(@PathParam("id") Long id, @Context Request request) {
+        Jogo entity = Jogo.findById(id);
+        if (entity == null) {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
+        Response.ResponseBuilder preconditionFailed = request.evaluatePreconditions(CatalogETags.of(entity.versao));
+        if (preconditionFailed != null) {
+            return preconditionFailed.build();
+        }
+        // delete() pela entidade, e não deleteById, para o Hibernate conferir a versão
+        entity.delete();
+        Jogo.flush();
+        changes.fire(CatalogChange.deleted(Jogo.class, id));
         return Response.noContent().build();
     }
+
+    private static Response referenciasInvalidas(Jogo jogo) {
+        List<String> erros = new JogoReferencias().erros(jogo);
+        if (erros.isEmpty()) {
+            return null;
+        }
+        return Response.status(400)
+                .entity(new ValidationExceptionMapper.ErrorBody(400, "Erro de Validação", erros))
+                .build();
+    }
 }
\ No newline at end of file
@@ -1,45 +1,64 @@
 package org.acme;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.http.HttpServerRequest;
 import jakarta.annotation.Priority;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.Priorities;
 import jakarta.ws.rs.container.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.Provider;
+import org.acme.metrics.RouteTemplate;
+import org.acme.ratelimit.RateLimitConfig;
+import org.acme.ratelimit.RateLimiter;
+import org.acme.ratelimit.TokenBucket;
+
 import java.io.IOException;
-import java.time.Duration;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
 
 @Provider
 @ApplicationScoped
 @Priority(Priorities.HEADER_DECORATOR)
 public class RateLimitingFilter implements ContainerRequestFilter, ContainerResponseFilter {
 
-    private static final int MAX_REQUESTS = 10;
-    private static final int WINDOW_SECONDS = 60;
+    @Inject
+    RateLimiter rateLimiter;
+
+    @Inject
+    RateLimitConfig config;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Context
+    ResourceInfo resourceInfo;
 
-    private final Cache<String, AtomicInteger> requestCounts = Caffeine.newBuilder()
-            .expireAfterWrite(Duration.ofSeconds(WINDOW_SECONDS))
-            .build();
+    @Context
+    HttpServerRequest httpRequest;
 
     @Override
     public void filter(ContainerRequestContext ctx) throws IOException {
         String path = ctx.getUriInfo().getPath();
         if (!path.contains("/v1/")) return;
 
-        String ip = "127.0.0.1";
+        String client = clientKey(ctx);
+        String method = ctx.getMethod();
+        String route = RouteTemplate.of(resourceInfo);
+        int cost = rateLimiter.cost(method, route == null ? path : route);
 
-        AtomicInteger count = requestCounts.get(ip, k -> new AtomicInteger(0));
-        int current = count.incrementAndGet();
+        TokenBucket.Decision decision = rateLimiter.tryConsume(client, cost, RateLimiter.isWrite(method));
+        ctx.setProperty("rate-limit-remaining", decision.remaining);
 
-        ctx.setProperty("rate-limit-remaining", Math.max(0, MAX_REQUESTS - current));
-
-        if (current > MAX_REQUESTS) {
+        if (!decision.allowed) {
+            // Tag pelo template da rota, nunca pelo path real, para não explodir a cardinalidade
+            registry.counter("catalog.rate_limit.rejections",
+                    "method", method, "route", route == null ? RouteTemplate.UNMATCHED : route).increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(decision.retryAfterNanos) + 1);
             ctx.abortWith(Response.status(429)
-                    .entity("Limite de requisições excedido. Tente novamente em 1 minuto.")
-                    .header("Retry-After", WINDOW_SECONDS)
+                    .entity("Limite de requisições excedido. Tente novamente em " + retryAfter + " segundos.")
+                    .header("Retry-After", retryAfter)
                     .build());
         }
     }
@@ -48,8 +67,13 @@ public class RateLimitingFilter implements ContainerRequestFilter, ContainerResp
     public void filter(ContainerRequestContext req, ContainerResponseContext res) {
         Object remaining = req.getProperty("rate-limit-remaining");
         if (remaining != null) {
-            res.getHeaders().add("X-RateLimit-Limit", MAX_REQUESTS);
+            res.getHeaders().add("X-RateLimit-Limit", rateLimiter.capacity());
             res.getHeaders().add("X-RateLimit-Remaining", remaining);
         }
     }
-}
\ No newline at end of file
+
+    // Chave de API só quando conhecida; senão o IP real (X-Forwarded-For só é aceito dos proxies confiáveis)
+    private String clientKey(ContainerRequestContext ctx) {
+        return rateLimiter.clientKey(ctx.getHeaderString(config.apiKeyHeader()), httpRequest.remoteAddress().hostAddress());
+    }
+}
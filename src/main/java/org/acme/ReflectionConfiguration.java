@@ -0,0 +1,59 @@
+package org.acme;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import org.acme.bulk.BulkReport;
+import org.acme.changes.ChangeFeedResponse;
+import org.acme.exception.ValidationExceptionMapper;
+import org.acme.facets.Facets;
+
+/**
+ * Classes que a imagem nativa precisa manter acessíveis por reflexão e que o
+ * Quarkus não descobre sozinho.
+ * <ul>
+ *     <li>DTOs que só aparecem dentro de {@code Response} (o Quarkus registra
+ *     apenas tipos de retorno declarados) e os corpos de erro dos mappers;</li>
+ *     <li>as entidades, porque o {@code KeysetCursor} lê os campos de ordenação
+ *     por reflexão;</li>
+ *     <li>as implementações de cache que o Caffeine gera e carrega pelo nome,
+ *     uma por combinação de opções usada em {@code EntityCache},
+ *     {@code RateLimiter}, {@code SearchCountCache}, {@code SearchResultCache}
+ *     e {@code IdempotencyFilter}.</li>
+ * </ul>
+ * Ao mudar as opções de um cache, rode os testes nativos com o agente
+ * ({@code native-image-agent}) para conferir a lista.
+ */
+@RegisterForReflection(
+        targets = {
+                Jogo.class,
+                Genero.class,
+                Desenvolvedora.class,
+                JogoDetalhe.class,
+                SearchJogoResponse.class,
+                SearchGeneroResponse.class,
+                SearchDesenvolvedoraResponse.class,
+                Facets.class,
+                Facets.FacetValue.class,
+                BulkReport.class,
+                BulkReport.ItemResult.class,
+                ChangeFeedResponse.class,
+                ChangeFeedResponse.Change.class,
+                ValidationExceptionMapper.ErrorBody.class
+        },
+        classNames = {
+                // stats + maximumSize + expireAfterWrite (EntityCache)
+                "com.github.benmanes.caffeine.cache.SSSMSW",
+                "com.github.benmanes.caffeine.cache.PSWMS",
+                // maximumSize + expireAfterWrite (SearchCountCache)
+                "com.github.benmanes.caffeine.cache.SSMSW",
+                // stats + maximumSize + expireAfterAccess (RateLimiter)
+                "com.github.benmanes.caffeine.cache.SSSMSA",
+                "com.github.benmanes.caffeine.cache.PSAMS",
+                // stats + maximumWeight + expireAfter variável (IdempotencyFilter)
+                "com.github.benmanes.caffeine.cache.SSSMWA",
+                "com.github.benmanes.caffeine.cache.PSAMW",
+                // stats + maximumWeight + expireAfterWrite (SearchResultCache: páginas no AsyncCache e ids que casaram)
+                "com.github.benmanes.caffeine.cache.SSSMWW",
+                "com.github.benmanes.caffeine.cache.PSWMW"
+        })
+public class ReflectionConfiguration {
+}
@@ -1,5 +1,7 @@
 package org.acme;
 
+import org.acme.facets.Facets;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -9,4 +11,6 @@ public class SearchJogoResponse {
     public int TotalPages;
     public boolean HasMore;
     public String NextPage;
+    // Contagens por década, gênero e país da desenvolvedora, sobre o resultado inteiro (não só a página)
+    public Facets Facets;
 }
\ No newline at end of file
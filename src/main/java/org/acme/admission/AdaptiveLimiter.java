@@ -0,0 +1,173 @@
+package org.acme.admission;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limite de concorrência AIMD: cada resposta dentro da latência alvo soma 1
+ * ao limite (enquanto ele estiver de fato sendo usado), e uma resposta lenta
+ * ou sobrecarregada o multiplica pelo {@code backoffRatio}, no máximo uma vez
+ * por {@code backoffWindow}. Sem a janela, uma rajada de respostas lentas que
+ * já estavam em andamento derrubaria o limite até o mínimo de uma vez. Assim
+ * o limite acompanha o que o banco aguenta sem precisar ser calibrado à mão.
+ * <p>
+ * Acima do limite, até {@code maxQueue} requisições esperam no máximo
+ * {@code maxWait} por uma vaga; as demais são recusadas na hora.
+ */
+public final class AdaptiveLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final long backoffWindowNanos;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private long lastBackoffNanos;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, Duration targetLatency, double backoffRatio,
+                           Duration backoffWindow, int maxQueue, Duration maxWait) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limites inválidos: min=" + minLimit + ", max=" + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.backoffWindowNanos = backoffWindow.toNanos();
+        this.lastBackoffNanos = System.nanoTime() - backoffWindowNanos;
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public static AdaptiveLimiter of(AdmissionConfig.Limits config) {
+        return new AdaptiveLimiter(config.initialLimit(), config.minLimit(), config.maxLimit(), config.targetLatency(),
+                config.backoffRatio(), config.backoffWindow(), config.maxQueue(), config.maxWait());
+    }
+
+    /**
+     * Ocupa uma vaga, esperando na fila se for o caso. Retorna {@code false}
+     * quando a requisição deve ser descartada; nesse caso não há o que liberar.
+     */
+    public boolean acquire() {
+        return acquire(true);
+    }
+
+    /**
+     * Ocupa uma vaga só se houver uma livre agora, sem entrar na fila. Para
+     * quem não pode bloquear a thread (event loop).
+     */
+    public boolean tryAcquire() {
+        return acquire(false);
+    }
+
+    private boolean acquire(boolean wait) {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                accepted.increment();
+                return true;
+            }
+            if (!wait || queued >= maxQueue || maxWaitNanos <= 0) {
+                rejected.increment();
+                return false;
+            }
+            queued++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        rejected.increment();
+                        return false;
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                inFlight++;
+                accepted.increment();
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejected.increment();
+                return false;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Libera a vaga e ajusta o limite pelo desfecho da requisição.
+     *
+     * @param overloaded a resposta indicou sobrecarga (503/504) independente da latência
+     */
+    public void release(long latencyNanos, boolean overloaded) {
+        lock.lock();
+        try {
+            // Usado antes desta liberação: só cresce se a demanda chegou perto do limite
+            int used = inFlight;
+            inFlight--;
+            if (overloaded || latencyNanos > targetLatencyNanos) {
+                long now = System.nanoTime();
+                if (now - lastBackoffNanos >= backoffWindowNanos) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastBackoffNanos = now;
+                }
+            } else if (used * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long accepted() {
+        return accepted.sum();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+}
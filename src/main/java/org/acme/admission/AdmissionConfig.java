@@ -0,0 +1,83 @@
+package org.acme.admission;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+@ConfigMapping(prefix = "admission")
+public interface AdmissionConfig {
+
+    /**
+     * Desligado, todas as requisições seguem direto para os recursos.
+     */
+    @WithDefault("true")
+    boolean enabled();
+
+    /**
+     * Valor do Retry-After das respostas 503.
+     */
+    @WithDefault("PT1S")
+    Duration retryAfter();
+
+    /**
+     * Leituras baratas: getAll, getById, listagens por relacionamento, change feed.
+     */
+    Limits read();
+
+    /**
+     * Endpoints /search.
+     */
+    Limits search();
+
+    /**
+     * POST/PUT/DELETE, incluindo /bulk.
+     */
+    Limits write();
+
+    interface Limits {
+
+        /**
+         * Requisições simultâneas permitidas na subida.
+         */
+        @WithDefault("20")
+        int initialLimit();
+
+        @WithDefault("2")
+        int minLimit();
+
+        @WithDefault("200")
+        int maxLimit();
+
+        /**
+         * Respostas mais lentas que isso reduzem o limite.
+         */
+        @WithDefault("PT0.2S")
+        Duration targetLatency();
+
+        /**
+         * Fator aplicado ao limite numa resposta lenta ou 503.
+         */
+        @WithDefault("0.9")
+        double backoffRatio();
+
+        /**
+         * Intervalo mínimo entre duas reduções: as respostas lentas dentro dele
+         * refletem o mesmo momento de sobrecarga e contam uma vez só.
+         */
+        @WithDefault("PT1S")
+        Duration backoffWindow();
+
+        /**
+         * Requisições que podem aguardar uma vaga; além disso a resposta é 503 imediato.
+         */
+        @WithDefault("50")
+        int maxQueue();
+
+        /**
+         * Espera máxima na fila antes do 503.
+         */
+        @WithDefault("PT0.05S")
+        Duration maxWait();
+    }
+}
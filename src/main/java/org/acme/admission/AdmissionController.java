@@ -0,0 +1,57 @@
+package org.acme.admission;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Um {@link AdaptiveLimiter} por {@link EndpointClass}, com o estado de cada
+ * um exposto em métricas.
+ */
+@ApplicationScoped
+public class AdmissionController implements MeterBinder {
+
+    private final Map<EndpointClass, AdaptiveLimiter> limiters = new EnumMap<>(EndpointClass.class);
+
+    @Inject
+    public AdmissionController(AdmissionConfig config) {
+        limiters.put(EndpointClass.READ, AdaptiveLimiter.of(config.read()));
+        limiters.put(EndpointClass.SEARCH, AdaptiveLimiter.of(config.search()));
+        limiters.put(EndpointClass.WRITE, AdaptiveLimiter.of(config.write()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        limiters.forEach((endpointClass, limiter) -> {
+            String tag = endpointClass.tag();
+            Gauge.builder("catalog.admission.limit", limiter, AdaptiveLimiter::limit)
+                    .description("Requisições simultâneas permitidas (ajustado pelo AIMD)")
+                    .tag("class", tag)
+                    .register(registry);
+            Gauge.builder("catalog.admission.in_flight", limiter, AdaptiveLimiter::inFlight)
+                    .tag("class", tag)
+                    .register(registry);
+            Gauge.builder("catalog.admission.queued", limiter, AdaptiveLimiter::queued)
+                    .tag("class", tag)
+                    .register(registry);
+            FunctionCounter.builder("catalog.admission.requests", limiter, AdaptiveLimiter::accepted)
+                    .tag("class", tag)
+                    .tag("outcome", "accepted")
+                    .register(registry);
+            FunctionCounter.builder("catalog.admission.requests", limiter, AdaptiveLimiter::rejected)
+                    .tag("class", tag)
+                    .tag("outcome", "rejected")
+                    .register(registry);
+        });
+    }
+
+    public AdaptiveLimiter limiter(EndpointClass endpointClass) {
+        return limiters.get(endpointClass);
+    }
+}
@@ -0,0 +1,82 @@
+package org.acme.admission;
+
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import org.acme.metrics.RouteTemplate;
+
+/**
+ * Controle de admissão na frente dos recursos. Roda depois do rate limit e da
+ * idempotência, então requisições já recusadas ou respondidas por replay não
+ * ocupam vaga. Sem vaga (fila cheia ou espera esgotada) a resposta é 503 com
+ * Retry-After, antes de chegar ao pool de conexões.
+ * <p>
+ * Endpoints não bloqueantes (como {@code /v1/changes/stream}, que devolve um
+ * {@code Multi}) chegam aqui no event loop, que não pode esperar na fila: para
+ * eles só há vaga se houver uma livre na hora.
+ * <p>
+ * A vaga é liberada no filtro de resposta. Em respostas em streaming isso
+ * acontece quando os headers saem, não ao fim do corpo.
+ */
+@Provider
+@ApplicationScoped
+@Priority(Priorities.HEADER_DECORATOR + 10)
+public class AdmissionFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final String PERMIT_PROPERTY = "admission-permit";
+
+    @Inject
+    AdmissionController controller;
+
+    @Inject
+    AdmissionConfig config;
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext ctx) {
+        if (!config.enabled()) return;
+
+        String route = RouteTemplate.of(resourceInfo);
+        if (route == null || !route.startsWith("/v1/")) return;
+
+        EndpointClass endpointClass = EndpointClass.of(ctx.getMethod(), route);
+        AdaptiveLimiter limiter = controller.limiter(endpointClass);
+        boolean admitted = io.vertx.core.Context.isOnEventLoopThread() ? limiter.tryAcquire() : limiter.acquire();
+        if (!admitted) {
+            long retryAfter = Math.max(1, config.retryAfter().toSeconds());
+            ctx.abortWith(Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity("Servidor sobrecarregado. Tente novamente em " + retryAfter + " segundos.")
+                    .header("Retry-After", retryAfter)
+                    .build());
+            return;
+        }
+        ctx.setProperty(PERMIT_PROPERTY, new Permit(limiter, System.nanoTime()));
+    }
+
+    @Override
+    public void filter(ContainerRequestContext req, ContainerResponseContext res) {
+        Permit permit = (Permit) req.getProperty(PERMIT_PROPERTY);
+        if (permit != null) {
+            req.removeProperty(PERMIT_PROPERTY);
+            int status = res.getStatus();
+            permit.limiter.release(System.nanoTime() - permit.startNanos, status == 503 || status == 504);
+        }
+    }
+
+    private static class Permit {
+        final AdaptiveLimiter limiter;
+        final long startNanos;
+
+        Permit(AdaptiveLimiter limiter, long startNanos) {
+            this.limiter = limiter;
+            this.startNanos = startNanos;
+        }
+    }
+}
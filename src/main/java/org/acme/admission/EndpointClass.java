@@ -0,0 +1,23 @@
+package org.acme.admission;
+
+import org.acme.ratelimit.RateLimiter;
+
+/**
+ * Classe de custo de um endpoint. Cada classe tem o seu próprio limite
+ * (bulkhead): uma rajada de pesquisas não ocupa as vagas das leituras por id
+ * nem das escritas.
+ */
+public enum EndpointClass {
+    READ, SEARCH, WRITE;
+
+    public static EndpointClass of(String method, String route) {
+        if (RateLimiter.isWrite(method)) {
+            return WRITE;
+        }
+        return route.endsWith("/search") ? SEARCH : READ;
+    }
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
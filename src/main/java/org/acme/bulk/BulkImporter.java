@@ -0,0 +1,244 @@
+package org.acme.bulk;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.acme.events.CatalogChange;
+import org.acme.exception.ViolationMessages;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.validator.HibernateValidatorFactory;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Importação em lote. Lê o corpo (array JSON ou NDJSON) item a item, valida
+ * cada um com as mesmas constraints do POST unitário e grava em chunks de
+ * {@code bulk.chunk-size}, cada chunk na sua transação. Com ids por sequence
+ * o Hibernate agrupa os INSERTs em batches JDBC.
+ */
+@ApplicationScoped
+public class BulkImporter {
+
+    private static final Logger LOG = Logger.getLogger(BulkImporter.class);
+
+    @Inject
+    ObjectMapper mapper;
+
+    @Inject
+    Validator validator;
+
+    @Inject
+    ValidatorFactory validatorFactory;
+
+    @Inject
+    ViolationMessages messages;
+
+    @Inject
+    Event<CatalogChange> changes;
+
+    @ConfigProperty(name = "bulk.chunk-size", defaultValue = "500")
+    int chunkSize;
+
+    @ConfigProperty(name = "bulk.validation.fail-fast", defaultValue = "false")
+    boolean failFast;
+
+    private Validator itemValidator;
+
+    @PostConstruct
+    void init() {
+        // Fail-fast para de validar o item na primeira violação: um payload
+        // todo errado custa uma constraint por item, não todas
+        itemValidator = failFast
+                ? validatorFactory.unwrap(HibernateValidatorFactory.class).usingContext().failFast(true).getValidator()
+                : validator;
+    }
+
+    public <T> BulkReport importAll(Class<T> type, InputStream body, Function<T, Long> id) {
+        return importAll(type, body, id, item -> List.of());
+    }
+
+    /**
+     * @param references erros de referência do item (ids de outras tabelas que não
+     *                   existem), conferidos antes da gravação como no POST unitário
+     */
+    public <T> BulkReport importAll(Class<T> type, InputStream body, Function<T, Long> id,
+                                    Function<T, List<String>> references) {
+        BulkReport report = new BulkReport();
+        Chunk<T> chunk = new Chunk<>(chunkSize);
+
+        // readValues percorre tanto um array JSON quanto valores separados por linha.
+        // Cada item é lido como árvore: um item com tipo errado vira INVALID sem
+        // interromper a leitura, e a árvore permite refazer o item se o chunk falhar.
+        int index = 0;
+        try (MappingIterator<JsonNode> it = mapper.readerFor(JsonNode.class).readValues(body)) {
+            while (it.hasNextValue()) {
+                JsonNode node = it.nextValue();
+                T item;
+                try {
+                    item = mapper.treeToValue(node, type);
+                } catch (JsonProcessingException e) {
+                    report.add(new BulkReport.ItemResult(index++, BulkReport.Status.INVALID, null, List.of(mappingError(e))));
+                    continue;
+                }
+                List<String> errors = validate(item);
+                if (errors.isEmpty()) {
+                    errors = references.apply(item);
+                }
+                if (errors.isEmpty()) {
+                    chunk.add(item, node, index);
+                } else {
+                    report.add(new BulkReport.ItemResult(index, BulkReport.Status.INVALID, null, errors));
+                }
+                index++;
+
+                if (chunk.size() == chunkSize) {
+                    flush(type, chunk, id, report);
+                }
+            }
+        } catch (IOException e) {
+            // Os chunks anteriores já foram gravados: em vez de um 400 sem relatório, grava o
+            // que já foi lido e informa onde a leitura parou, para o cliente reenviar só o resto
+            flush(type, chunk, id, report);
+            report.add(new BulkReport.ItemResult(index, BulkReport.Status.INVALID, null, List.of(parseError(e))));
+            report.complete = false;
+            return report.sorted();
+        }
+        flush(type, chunk, id, report);
+        return report.sorted();
+    }
+
+    private List<String> validate(Object item) {
+        Set<ConstraintViolation<Object>> violations = itemValidator.validate(item);
+        // Copiada: o relatório não deve segurar as violações (e o item) até o fim da importação
+        return violations.isEmpty() ? List.of() : List.copyOf(messages.list(violations));
+    }
+
+    private <T> void flush(Class<T> type, Chunk<T> chunk, Function<T, Long> id, BulkReport report) {
+        if (chunk.size() == 0) {
+            return;
+        }
+        try {
+            QuarkusTransaction.requiringNew().run(() -> {
+                EntityManager em = Panache.getEntityManager(type);
+                for (T entity : chunk.items) {
+                    em.persist(entity);
+                    changes.fire(CatalogChange.created(type, id.apply(entity), entity));
+                }
+                em.flush();
+                em.clear();
+            });
+            for (int i = 0; i < chunk.size(); i++) {
+                report.add(new BulkReport.ItemResult(chunk.positions.get(i), BulkReport.Status.CREATED, id.apply(chunk.items.get(i)), null));
+            }
+        } catch (RuntimeException e) {
+            // O chunk inteiro sofreu rollback: refaz item a item para gravar os bons e
+            // apontar quais falharam. As entidades do chunk já têm id, então são
+            // recriadas a partir da árvore lida.
+            LOG.debugf(e, "Chunk de %d itens de %s falhou; gravando item a item", chunk.size(), type.getSimpleName());
+            for (int i = 0; i < chunk.size(); i++) {
+                report.add(persistOne(type, chunk.nodes.get(i), chunk.positions.get(i), id));
+            }
+        }
+        chunk.clear();
+    }
+
+    private <T> BulkReport.ItemResult persistOne(Class<T> type, JsonNode node, int position, Function<T, Long> id) {
+        try {
+            T entity = mapper.treeToValue(node, type);
+            QuarkusTransaction.requiringNew().run(() -> {
+                EntityManager em = Panache.getEntityManager(type);
+                em.persist(entity);
+                changes.fire(CatalogChange.created(type, id.apply(entity), entity));
+                em.flush();
+            });
+            return new BulkReport.ItemResult(position, BulkReport.Status.CREATED, id.apply(entity), null);
+        } catch (JsonProcessingException | RuntimeException e) {
+            LOG.debugf(e, "Item %d de %s não foi gravado", position, type.getSimpleName());
+            return new BulkReport.ItemResult(position, BulkReport.Status.FAILED, null, List.of(failure(e)));
+        }
+    }
+
+    // Mensagem por tipo de falha, sem o SQL nem o nome das constraints
+    private static String failure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return switch (violation.getKind()) {
+                    case FOREIGN_KEY -> "O item referencia um registro que não existe.";
+                    case UNIQUE -> "Já existe um registro com esses dados.";
+                    case NOT_NULL -> "Um campo obrigatório não foi informado.";
+                    default -> "O item viola uma restrição do banco.";
+                };
+            }
+        }
+        return "Não foi possível gravar o item.";
+    }
+
+    private static String mappingError(JsonProcessingException e) {
+        if (e instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+            List<JsonMappingException.Reference> path = mapping.getPath();
+            String field = path.get(path.size() - 1).getFieldName();
+            if (field != null) {
+                return field + ": valor em formato inválido";
+            }
+        }
+        return "Item em formato inválido";
+    }
+
+    private static String parseError(IOException e) {
+        if (e instanceof JsonProcessingException json && json.getLocation() != null) {
+            JsonLocation at = json.getLocation();
+            return "JSON malformado na linha " + at.getLineNr() + ", coluna " + at.getColumnNr()
+                    + ". Este item e os seguintes não foram processados.";
+        }
+        return "A leitura do corpo foi interrompida. Este item e os seguintes não foram processados.";
+    }
+
+    // Itens válidos aguardando gravação, com a árvore lida e a posição de cada um
+    private static class Chunk<T> {
+        final List<T> items;
+        final List<JsonNode> nodes;
+        final List<Integer> positions;
+
+        Chunk(int capacity) {
+            items = new ArrayList<>(capacity);
+            nodes = new ArrayList<>(capacity);
+            positions = new ArrayList<>(capacity);
+        }
+
+        void add(T item, JsonNode node, int position) {
+            items.add(item);
+            nodes.add(node);
+            positions.add(position);
+        }
+
+        int size() {
+            return items.size();
+        }
+
+        void clear() {
+            items.clear();
+            nodes.clear();
+            positions.clear();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.acme.bulk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Relatório de uma importação em lote: um resultado por item, na ordem em que
+ * os itens chegaram.
+ */
+public class BulkReport {
+
+    public enum Status { CREATED, INVALID, FAILED }
+
+    public int total;
+    public int created;
+    public int failed;
+    // false quando a leitura parou no meio (JSON malformado): os itens a partir
+    // do último INVALID não foram processados
+    public boolean complete = true;
+    public List<ItemResult> items = new ArrayList<>();
+
+    public static class ItemResult {
+        public int index;
+        public Status status;
+        public Long id;
+        public List<String> errors;
+
+        public ItemResult(int index, Status status, Long id, List<String> errors) {
+            this.index = index;
+            this.status = status;
+            this.id = id;
+            this.errors = errors;
+        }
+    }
+
+    BulkReport sorted() {
+        items.sort((a, b) -> Integer.compare(a.index, b.index));
+        return this;
+    }
+
+    void add(ItemResult result) {
+        items.add(result);
+        total++;
+        if (result.status == Status.CREATED) {
+            created++;
+        } else {
+            failed++;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.acme.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import org.acme.search.SearchResultCache;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Path("/v1/cache/stats")
+@Produces("application/json")
+public class CacheStatsResource {
+
+    @Inject
+    EntityCache entityCache;
+
+    @Inject
+    SearchResultCache searchResultCache;
+
+    @GET
+    @Operation(summary = "Estatísticas dos caches de entidades e de páginas de pesquisa (hits, misses, evictions)")
+    public Map<String, Map<String, Object>> stats() {
+        Map<String, Map<String, Object>> body = new LinkedHashMap<>();
+        for (Map.Entry<String, CacheStats> entry : entityCache.stats().entrySet()) {
+            CacheStats stats = entry.getValue();
+            body.put(entry.getKey(), values(entityCache.size(entry.getKey()), stats));
+        }
+        body.put("search-results", values(searchResultCache.size(), searchResultCache.stats()));
+        body.put("search-matches", values(searchResultCache.matchesSize(), searchResultCache.matchesStats()));
+        return body;
+    }
+
+    private static Map<String, Object> values(long size, CacheStats stats) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("size", size);
+        values.put("hits", stats.hitCount());
+        values.put("misses", stats.missCount());
+        values.put("hitRate", stats.hitRate());
+        values.put("evictions", stats.evictionCount());
+        return values;
+    }
+}
@@ -0,0 +1,71 @@
+package org.acme.cache;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.acme.changes.ChangeLogEntry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+
+/**
+ * Aplica ao {@link EntityCache} as escritas feitas em outras réplicas. O
+ * evento {@code CatalogChange} só chega à réplica que escreveu; as demais
+ * leem o log de mudanças compartilhado a cada
+ * {@code entity-cache.sync-interval}, a partir da última posição aplicada, e
+ * invalidam as mesmas chaves. As escritas desta réplica voltam pelo log e
+ * são invalidadas de novo, sem efeito.
+ * <p>
+ * Uma escrita de outra réplica deixa de ser servida daqui em até
+ * {@code changes.publish.interval} + {@code entity-cache.sync-interval}.
+ * Uma alteração feita direto no banco, sem entrada no log, só sai pelo
+ * {@code entity-cache.expire-after-write}.
+ */
+@ApplicationScoped
+public class ChangeLogInvalidator {
+
+    @Inject
+    EntityCache cache;
+
+    @Inject
+    EntityManager em;
+
+    @ConfigProperty(name = "entity-cache.sync-batch-size", defaultValue = "500")
+    int batchSize;
+
+    // Última posição do log já aplicada ao cache
+    private volatile long after;
+
+    // O cache começa vazio: nada antes do fim atual do log precisa ser invalidado
+    void onStart(@Observes StartupEvent event) {
+        after = QuarkusTransaction.requiringNew().call(() -> {
+            Long tail = em.createQuery("select max(e.posicao) from ChangeLogEntry e", Long.class).getSingleResult();
+            return tail == null ? 0L : tail;
+        });
+    }
+
+    @Scheduled(every = "${entity-cache.sync-interval:PT1S}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void sync() {
+        int applied;
+        do {
+            applied = QuarkusTransaction.requiringNew().call(this::apply);
+        } while (applied == batchSize);
+    }
+
+    private int apply() {
+        List<Object[]> rows = em.createQuery("select e.posicao, e.tipo, e.entidadeId from ChangeLogEntry e"
+                        + " where e.posicao > :after order by e.posicao", Object[].class)
+                .setParameter("after", after)
+                .setMaxResults(batchSize)
+                .getResultList();
+        for (Object[] row : rows) {
+            cache.invalidate((String) row[1], (Long) row[2]);
+            after = (Long) row[0];
+        }
+        return rows.size();
+    }
+}
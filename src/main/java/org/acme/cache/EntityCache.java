@@ -0,0 +1,157 @@
+package org.acme.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.acme.events.CatalogChange;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache read-through das entidades do catálogo (por id e listas completas).
+ * A invalidação acontece só depois do commit das escritas, pelo evento
+ * {@link CatalogChange}; uma carga em andamento para a mesma chave termina
+ * antes da invalidação, então um valor antigo não sobrevive a um PUT. As
+ * escritas das outras réplicas chegam pelo log de mudanças compartilhado
+ * ({@link ChangeLogInvalidator}).
+ * <p>
+ * As listas também levam na chave a versão da tabela (a do ETag), que vem do
+ * banco: uma escrita feita em outra réplica muda a versão e a lista é lida de
+ * novo, sem depender do evento local.
+ */
+@ApplicationScoped
+public class EntityCache implements MeterBinder {
+
+    private final Cache<String, Object> entities;
+    private final Cache<String, List<?>> lists;
+    // Muda a cada invalidação; ver putIfUnchanged
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Inject
+    public EntityCache(
+            @ConfigProperty(name = "entity-cache.maximum-size", defaultValue = "10000") long maximumSize,
+            @ConfigProperty(name = "entity-cache.expire-after-write", defaultValue = "PT10M") Duration ttl) {
+        this.entities = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.lists = Caffeine.newBuilder()
+                .maximumSize(16)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, entities, "entities");
+        CaffeineCacheMetrics.monitor(registry, lists, "entity-lists");
+    }
+
+    /**
+     * Retorna a entidade do cache ou carrega pelo {@code loader}. Ausências
+     * (null) não são guardadas.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Class<T> type, Long id, Function<Long, T> loader) {
+        return (T) entities.get(key(type, id), k -> loader.apply(id));
+    }
+
+    /**
+     * Entidade em cache, sem carregar. Junto com {@link #invalidations()} e
+     * {@link #putIfUnchanged} permite carregar fora do cache, sem segurar o
+     * lock da chave durante a consulta.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getIfPresent(Class<T> type, Long id) {
+        return (T) entities.getIfPresent(key(type, id));
+    }
+
+    /**
+     * Marca a ser lida antes de consultar o banco e passada ao
+     * {@link #putIfUnchanged}.
+     */
+    public long invalidations() {
+        return invalidations.get();
+    }
+
+    /**
+     * Guarda a entidade carregada desde que nenhuma escrita tenha invalidado
+     * o cache depois de {@code mark}; senão a carga pode ter lido a versão
+     * anterior e é descartada. A verificação roda no compute da chave, então
+     * não cruza com a invalidação da mesma chave.
+     */
+    public <T> void putIfUnchanged(Class<T> type, Long id, T entity, long mark) {
+        entities.asMap().compute(key(type, id), (k, current) -> invalidations.get() == mark ? entity : current);
+    }
+
+    /**
+     * Entidades dos ids que já estão no cache, sem carregar as demais.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<Long, T> present(Class<T> type, List<Long> ids) {
+        Map<Long, T> found = new HashMap<>();
+        for (Long id : ids) {
+            Object entity = entities.getIfPresent(key(type, id));
+            if (entity != null) {
+                found.put(id, (T) entity);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Lista completa da entidade na {@code version} informada (ver
+     * {@code CatalogETags.version}).
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> all(Class<T> type, String version, Supplier<List<T>> loader) {
+        return (List<T>) lists.get(type.getSimpleName() + "@" + version, k -> List.copyOf(loader.get()));
+    }
+
+    void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) CatalogChange change) {
+        invalidate(change.type.getSimpleName(), change.id);
+    }
+
+    /**
+     * Remove a entidade {@code tipo}/{@code id} e as listas do tipo.
+     */
+    public void invalidate(String tipo, Long id) {
+        // Conta antes de invalidar: um putIfUnchanged posterior desiste, e um anterior tem a entrada removida aqui
+        invalidations.incrementAndGet();
+        entities.invalidate(tipo + ":" + id);
+        String prefix = tipo + "@";
+        lists.asMap().keySet().removeIf(k -> k.startsWith(prefix));
+    }
+
+    public Map<String, CacheStats> stats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("entities", entities.stats());
+        stats.put("lists", lists.stats());
+        return stats;
+    }
+
+    public long size(String name) {
+        return "lists".equals(name) ? lists.estimatedSize() : entities.estimatedSize();
+    }
+
+    private static String key(Class<?> type, Long id) {
+        return type.getSimpleName() + ":" + id;
+    }
+}
@@ -0,0 +1,51 @@
+package org.acme.changes;
+
+import jakarta.ws.rs.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Cursor opaco do change feed: a última posição entregue (a
+ * {@link ChangeLogEntry#posicao}, em ordem de commit) e até quando o
+ * consumidor já estava em dia. O instante é o que permite saber se ele
+ * ficou parado por mais tempo que a retenção das exclusões.
+ */
+public final class ChangeCursor {
+
+    private static final String SEPARATOR = "|";
+
+    public final long seq;
+    public final Instant vistoAte;
+
+    ChangeCursor(long seq, Instant vistoAte) {
+        this.seq = seq;
+        this.vistoAte = vistoAte;
+    }
+
+    /**
+     * Decodifica o token recebido do cliente. Retorna {@code null} quando não
+     * há token (consumidor novo, lê o log desde o início).
+     */
+    public static ChangeCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            if (parts.length != 2) {
+                throw new BadRequestException("Cursor inválido.");
+            }
+            return new ChangeCursor(Long.parseLong(parts[0]), Instant.ofEpochMilli(Long.parseLong(parts[1])));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cursor inválido.");
+        }
+    }
+
+    public String encode() {
+        String raw = seq + SEPARATOR + vistoAte.toEpochMilli();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
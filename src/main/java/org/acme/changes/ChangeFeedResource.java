@@ -0,0 +1,81 @@
+package org.acme.changes;
+
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import org.acme.format.BinaryFormats;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Path("/v1/changes")
+@Produces({"application/json", BinaryFormats.CBOR, BinaryFormats.SMILE})
+public class ChangeFeedResource {
+
+    private static final int MAX_SIZE = 1000;
+
+    @Inject
+    ChangeLog changeLog;
+
+    @ConfigProperty(name = "changes.stream.poll-interval", defaultValue = "PT1S")
+    Duration pollInterval;
+
+    @ConfigProperty(name = "changes.stream.batch-size", defaultValue = "500")
+    int streamBatchSize;
+
+    @GET
+    @RunOnVirtualThread
+    @Operation(summary = "Mudanças em jogos, gêneros e desenvolvedoras depois do cursor informado")
+    @APIResponse(responseCode = "200", description = "Página de mudanças; NextCursor vai no próximo since")
+    @APIResponse(responseCode = "410", description = "Cursor mais antigo que a retenção do log: sincronize de novo sem since")
+    public ChangeFeedResponse changes(
+            @Parameter(description = "NextCursor da resposta anterior; sem since o log é lido desde o início")
+            @QueryParam("since") String since,
+            @QueryParam("size") @DefaultValue("100") int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new BadRequestException("size deve estar entre 1 e " + MAX_SIZE + ".");
+        }
+        return changeLog.read(ChangeCursor.decode(since), size);
+    }
+
+    @GET
+    @Path("stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @Operation(summary = "Stream SSE das mudanças: lê o log a partir do cursor e continua enviando as novas")
+    @APIResponse(responseCode = "410", description = "Cursor mais antigo que a retenção do log: sincronize de novo sem since")
+    public Multi<OutboundSseEvent> stream(
+            @Parameter(description = "Cursor inicial; na reconexão o Last-Event-ID enviado pelo EventSource tem precedência")
+            @QueryParam("since") String since,
+            @HeaderParam("Last-Event-ID") String lastEventId,
+            @Context Sse sse) {
+        ChangeCursor start = ChangeCursor.decode(lastEventId != null && !lastEventId.isBlank() ? lastEventId : since);
+        changeLog.checkExpired(start);
+
+        // Cada conexão consulta o log na própria posição, fora do event loop
+        AtomicReference<ChangeCursor> position = new AtomicReference<>(start);
+        return Multi.createFrom().ticks().every(pollInterval)
+                .onOverflow().drop()
+                .emitOn(Infrastructure.getDefaultWorkerPool())
+                .concatMap(tick -> {
+                    ChangeFeedResponse page = changeLog.read(position.get(), streamBatchSize);
+                    position.set(ChangeCursor.decode(page.NextCursor));
+                    return Multi.createFrom().iterable(page.Changes);
+                })
+                .map(change -> sse.newEventBuilder()
+                        .id(change.Cursor)
+                        .name("change")
+                        .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                        .data(ChangeFeedResponse.Change.class, change)
+                        .build());
+    }
+}
@@ -0,0 +1,27 @@
+package org.acme.changes;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.acme.events.CatalogChange;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ChangeFeedResponse {
+    public List<Change> Changes = new ArrayList<>();
+    public boolean HasMore;
+    // Vai no próximo ?since=; sempre presente, mesmo quando não houve mudanças
+    public String NextCursor;
+
+    public static class Change {
+        // Também é o id do evento no stream SSE (Last-Event-ID)
+        public String Cursor;
+        public String Tipo;
+        public Long Id;
+        public CatalogChange.Operation Operacao;
+        public Instant RegistradoEm;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public JsonNode Dados;
+    }
+}
@@ -0,0 +1,216 @@
+package org.acme.changes;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Sort;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.acme.Desenvolvedora;
+import org.acme.Genero;
+import org.acme.Jogo;
+import org.acme.events.CatalogChange;
+import org.acme.exception.ValidationExceptionMapper;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Log append-only das escritas do catálogo, para consumidores que espelham
+ * os dados sincronizarem só as diferenças.
+ * <p>
+ * Cada {@link CatalogChange} vira uma linha ainda dentro da transação da
+ * escrita: rollback da escrita desfaz também a entrada. A linha nasce sem
+ * posição; o publicador ({@link #publish()}) numera em ordem as linhas já
+ * commitadas, com a {@link ChangeLogHead} travada, e o feed só entrega linhas
+ * numeradas. Uma transação que reservou a seq antes mas fez commit depois
+ * recebe uma posição maior que a de tudo que já foi entregue, então nenhum
+ * cursor a pula.
+ * <p>
+ * A compactação apaga as entradas substituídas por outra mais nova da mesma
+ * entidade (depois de {@code changes.compaction.min-age}) e as exclusões mais
+ * velhas que {@code changes.retention}. Um cursor mais velho que a retenção
+ * pode ter perdido exclusões e recebe 410.
+ */
+@ApplicationScoped
+public class ChangeLog {
+
+    private static final Logger LOG = Logger.getLogger(ChangeLog.class);
+
+    @Inject
+    ObjectMapper mapper;
+
+    @ConfigProperty(name = "changes.publish.batch-size", defaultValue = "500")
+    int publishBatchSize;
+
+    @ConfigProperty(name = "changes.retention", defaultValue = "P7D")
+    Duration retention;
+
+    @ConfigProperty(name = "changes.compaction.min-age", defaultValue = "PT1H")
+    Duration compactionMinAge;
+
+    @ConfigProperty(name = "changes.compaction.batch-size", defaultValue = "500")
+    int compactionBatchSize;
+
+    /**
+     * Log vazio com catálogo populado (primeira subida, ou dados do
+     * import.sql/migrations): registra o estado atual como CREATED para que
+     * um consumidor novo consiga se montar só pelo feed. A cabeça do log fica
+     * travada durante a carga, então réplicas subindo juntas fazem a carga
+     * uma vez só: as demais esperam e encontram o log preenchido.
+     */
+    @Transactional
+    void onStart(@Observes StartupEvent event) {
+        ChangeLogHead.lock();
+        if (ChangeLogEntry.count() > 0) {
+            return;
+        }
+        Jogo.<Jogo>streamAll(Sort.by("id")).forEach(j -> record(CatalogChange.created(Jogo.class, j.id, j)));
+        Genero.<Genero>streamAll(Sort.by("id")).forEach(g -> record(CatalogChange.created(Genero.class, g.id, g)));
+        Desenvolvedora.<Desenvolvedora>streamAll(Sort.by("id"))
+                .forEach(d -> record(CatalogChange.created(Desenvolvedora.class, d.id, d)));
+    }
+
+    // Síncrono, na transação de quem disparou o evento
+    void record(@Observes CatalogChange change) {
+        ChangeLogEntry entry = new ChangeLogEntry();
+        entry.tipo = change.type.getSimpleName();
+        entry.entidadeId = change.id;
+        entry.operacao = change.operation;
+        entry.registradoEm = Instant.now();
+        if (change.entity != null) {
+            try {
+                entry.dados = mapper.writeValueAsString(change.entity);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        entry.persist();
+    }
+
+    /**
+     * Responde 410 quando o consumidor ficou parado por mais tempo que a
+     * retenção das exclusões.
+     */
+    public void checkExpired(ChangeCursor since) {
+        if (since != null && since.vistoAte.isBefore(Instant.now().minus(retention))) {
+            throw new WebApplicationException(Response.status(Response.Status.GONE)
+                    .entity(new ValidationExceptionMapper.ErrorBody(410, "Cursor expirado",
+                            List.of("O cursor é mais antigo que a retenção do log (" + retention
+                                    + "). Sincronize de novo a partir do início (sem since).")))
+                    .build());
+        }
+    }
+
+    /**
+     * Até {@code size} mudanças depois do cursor, em ordem de posição.
+     */
+    @Transactional
+    public ChangeFeedResponse read(ChangeCursor since, int size) {
+        checkExpired(since);
+        Instant agora = Instant.now();
+        long after = since == null ? 0 : since.seq;
+
+        List<ChangeLogEntry> rows = ChangeLogEntry
+                .<ChangeLogEntry>find("posicao > ?1", Sort.by("posicao"), after)
+                .page(0, size + 1)
+                .list();
+
+        ChangeFeedResponse response = new ChangeFeedResponse();
+        response.HasMore = rows.size() > size;
+        for (ChangeLogEntry row : rows.subList(0, Math.min(size, rows.size()))) {
+            response.Changes.add(change(row));
+            after = row.posicao;
+        }
+        // Em dia com o log: o cursor avança no tempo mesmo sem mudanças novas, senão
+        // um consumidor parado num catálogo sem escritas expiraria
+        Instant vistoAte = response.HasMore ? rows.get(size - 1).registradoEm : agora;
+        response.NextCursor = new ChangeCursor(after, vistoAte).encode();
+        return response;
+    }
+
+    @Scheduled(every = "${changes.publish.interval:PT0.5S}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void publishPending() {
+        int published;
+        do {
+            published = publish();
+        } while (published == publishBatchSize);
+    }
+
+    /**
+     * Numera um lote de entradas já commitadas e ainda sem posição, em ordem
+     * de seq. Devolve quantas foram publicadas.
+     */
+    public int publish() {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            ChangeLogHead head = ChangeLogHead.lock();
+            List<ChangeLogEntry> pending = ChangeLogEntry
+                    .<ChangeLogEntry>find("posicao is null", Sort.by("seq"))
+                    .page(0, publishBatchSize)
+                    .list();
+            for (ChangeLogEntry entry : pending) {
+                entry.posicao = ++head.ultimaPosicao;
+            }
+            return pending.size();
+        });
+    }
+
+    /**
+     * Apaga em lotes curtos, um por transação, as entradas substituídas e as
+     * exclusões vencidas.
+     */
+    @Scheduled(every = "${changes.compaction.interval:PT10M}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void compact() {
+        int removed;
+        int total = 0;
+        do {
+            removed = QuarkusTransaction.requiringNew().call(() -> {
+                Instant now = Instant.now();
+                List<Long> seqs = ChangeLogEntry.getEntityManager()
+                        .createQuery("select e.seq from ChangeLogEntry e"
+                                + " where (e.registradoEm < :compactar and exists (select 1 from ChangeLogEntry n"
+                                + " where n.tipo = e.tipo and n.entidadeId = e.entidadeId and n.seq > e.seq))"
+                                + " or (e.operacao = :deleted and e.registradoEm < :reter)", Long.class)
+                        .setParameter("compactar", now.minus(compactionMinAge))
+                        .setParameter("deleted", CatalogChange.Operation.DELETED)
+                        .setParameter("reter", now.minus(retention))
+                        .setMaxResults(compactionBatchSize)
+                        .getResultList();
+                return seqs.isEmpty() ? 0 : (int) ChangeLogEntry.delete("seq in ?1", seqs);
+            });
+            total += removed;
+        } while (removed == compactionBatchSize);
+
+        if (total > 0) {
+            LOG.debugf("Compactação do log de mudanças removeu %d entradas", total);
+        }
+    }
+
+    private ChangeFeedResponse.Change change(ChangeLogEntry row) {
+        ChangeFeedResponse.Change change = new ChangeFeedResponse.Change();
+        change.Cursor = new ChangeCursor(row.posicao, row.registradoEm).encode();
+        change.Tipo = row.tipo;
+        change.Id = row.entidadeId;
+        change.Operacao = row.operacao;
+        change.RegistradoEm = row.registradoEm;
+        if (row.dados != null) {
+            try {
+                change.Dados = mapper.readTree(row.dados);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return change;
+    }
+}
@@ -0,0 +1,53 @@
+package org.acme.changes;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import org.acme.events.CatalogChange;
+
+import java.time.Instant;
+
+/**
+ * Linha do log de mudanças do catálogo, gravada na mesma transação da
+ * escrita que a originou. A compactação mantém só a última entrada de cada
+ * entidade, então o log nunca passa muito do tamanho do próprio catálogo.
+ * <p>
+ * A {@code seq} segue a ordem das escritas, não a dos commits. O feed é lido
+ * pela {@code posicao}, atribuída depois do commit pelo publicador do
+ * {@link ChangeLog}; enquanto ela é null a entrada ainda não é visível.
+ */
+@Entity
+@Table(name = "change_log", indexes = {
+        @Index(name = "idx_change_log_entidade", columnList = "tipo, entidadeId, seq"),
+        @Index(name = "idx_change_log_registrado", columnList = "registradoEm"),
+        @Index(name = "idx_change_log_posicao", columnList = "posicao", unique = true)})
+public class ChangeLogEntry extends PanacheEntityBase {
+
+    // Posição no log. allocationSize 1 para que réplicas diferentes não
+    // reservem faixas fora da ordem das escritas
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "change_log_seq")
+    @SequenceGenerator(name = "change_log_seq", sequenceName = "change_log_SEQ", allocationSize = 1)
+    public Long seq;
+
+    // Ordem de publicação (ordem de commit); null até ser publicada
+    public Long posicao;
+
+    @Column(length = 50, nullable = false)
+    public String tipo;
+
+    @Column(nullable = false)
+    public Long entidadeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    public CatalogChange.Operation operacao;
+
+    @Column(nullable = false)
+    public Instant registradoEm;
+
+    // Entidade em JSON depois da escrita; null em DELETED
+    @Lob
+    public String dados;
+
+    public ChangeLogEntry() {}
+}
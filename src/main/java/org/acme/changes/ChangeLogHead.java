@@ -0,0 +1,37 @@
+package org.acme.changes;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Table;
+
+/**
+ * Linha única com a última posição publicada do log. Travá-la
+ * ({@code PESSIMISTIC_WRITE}) serializa entre réplicas a publicação e a
+ * carga inicial do log.
+ */
+@Entity
+@Table(name = "change_log_head")
+public class ChangeLogHead extends PanacheEntityBase {
+
+    static final int ID = 1;
+
+    @Id
+    public Integer id;
+
+    public long ultimaPosicao;
+
+    public ChangeLogHead() {}
+
+    /**
+     * Trava a linha até o fim da transação atual.
+     */
+    static ChangeLogHead lock() {
+        ChangeLogHead head = findById(ID, LockModeType.PESSIMISTIC_WRITE);
+        if (head == null) {
+            throw new IllegalStateException("Linha change_log_head ausente: rode as migrations (V4) ou o import.sql.");
+        }
+        return head;
+    }
+}
@@ -0,0 +1,83 @@
+package org.acme.etag;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.ws.rs.core.EntityTag;
+import org.acme.events.CatalogChange;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * ETags do catálogo. Recursos individuais usam a coluna {@code @Version} da
+ * entidade (ETag forte); listas e pesquisas usam a versão da tabela (ETag
+ * fraca), um contador por tipo em {@link CatalogVersion}.
+ * <p>
+ * O contador sobe na mesma transação da escrita, então muda no commit: um GET
+ * logo depois de um PUT já vê a versão nova, em qualquer réplica. A linha do
+ * tipo fica travada até o commit, o que serializa as escritas de uma mesma
+ * tabela.
+ */
+@ApplicationScoped
+public class CatalogETags {
+
+    @Inject
+    EntityManager em;
+
+    /**
+     * ETag forte das versões informadas (a entidade e, quando expandidas, as
+     * associadas).
+     */
+    public static EntityTag of(Long... versoes) {
+        StringJoiner value = new StringJoiner(".");
+        for (Long versao : versoes) {
+            value.add(String.valueOf(versao));
+        }
+        return new EntityTag(value.toString());
+    }
+
+    // Uma consulta pela chave primária para todos os tipos
+    public EntityTag collection(Class<?>... types) {
+        List<String> tipos = new ArrayList<>(types.length);
+        for (Class<?> type : types) {
+            tipos.add(type.getSimpleName());
+        }
+        Map<String, Long> versoes = new HashMap<>();
+        for (CatalogVersion row : em.createQuery("from CatalogVersion v where v.tipo in :tipos", CatalogVersion.class)
+                .setParameter("tipos", tipos)
+                .getResultList()) {
+            versoes.put(row.tipo, row.versao);
+        }
+        StringJoiner value = new StringJoiner(".");
+        for (String tipo : tipos) {
+            value.add(String.valueOf(versoes.getOrDefault(tipo, 0L)));
+        }
+        return new EntityTag(value.toString(), true);
+    }
+
+    /**
+     * Versão da tabela, lida pela chave primária.
+     */
+    public long version(Class<?> type) {
+        List<Long> versao = em.createQuery("select v.versao from CatalogVersion v where v.tipo = :tipo", Long.class)
+                .setParameter("tipo", type.getSimpleName())
+                .getResultList();
+        return versao.isEmpty() ? 0 : versao.get(0);
+    }
+
+    // Síncrono, na transação de quem disparou o evento: a versão nova vale a partir do commit
+    void bump(@Observes CatalogChange change) {
+        int updated = em.createQuery("update CatalogVersion v set v.versao = v.versao + 1 where v.tipo = :tipo")
+                .setParameter("tipo", change.type.getSimpleName())
+                .executeUpdate();
+        if (updated == 0) {
+            throw new IllegalStateException("Linha de catalog_version ausente para " + change.type.getSimpleName()
+                    + ": rode as migrations (V6) ou o import.sql.");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.acme.etag;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Contador de escritas de uma tabela do catálogo, uma linha por tipo. É
+ * incrementado dentro da transação de cada escrita e lido pela chave
+ * primária pelo {@link CatalogETags}.
+ */
+@Entity
+@Table(name = "catalog_version")
+public class CatalogVersion extends PanacheEntityBase {
+
+    @Id
+    @Column(length = 50)
+    public String tipo;
+
+    public long versao;
+
+    public CatalogVersion() {}
+}
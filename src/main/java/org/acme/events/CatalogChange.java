@@ -0,0 +1,38 @@
+package org.acme.events;
+
+/**
+ * Evento disparado pelos métodos de escrita dos recursos. Os observadores
+ * interessados usam {@code @Observes(during = TransactionPhase.AFTER_SUCCESS)}
+ * para reagir apenas depois do commit. A exceção é o log de mudanças
+ * ({@code ChangeLog}), que observa de forma síncrona para gravar na mesma
+ * transação.
+ */
+public class CatalogChange {
+
+    public enum Operation { CREATED, UPDATED, DELETED }
+
+    public final Class<?> type;
+    public final Long id;
+    public final Operation operation;
+    // Estado da entidade após a escrita (null em DELETED)
+    public final Object entity;
+
+    private CatalogChange(Class<?> type, Long id, Operation operation, Object entity) {
+        this.type = type;
+        this.id = id;
+        this.operation = operation;
+        this.entity = entity;
+    }
+
+    public static CatalogChange created(Class<?> type, Long id, Object entity) {
+        return new CatalogChange(type, id, Operation.CREATED, entity);
+    }
+
+    public static CatalogChange updated(Class<?> type, Long id, Object entity) {
+        return new CatalogChange(type, id, Operation.UPDATED, entity);
+    }
+
+    public static CatalogChange deleted(Class<?> type, Long id) {
+        return new CatalogChange(type, id, Operation.DELETED, null);
+    }
+}
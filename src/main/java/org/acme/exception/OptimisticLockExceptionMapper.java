@@ -0,0 +1,20 @@
+package org.acme.exception;
+
+import jakarta.persistence.OptimisticLockException;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+import java.util.List;
+
+@Provider
+public class OptimisticLockExceptionMapper implements ExceptionMapper<OptimisticLockException> {
+
+    @Override
+    public Response toResponse(OptimisticLockException exception) {
+        // Outra requisição alterou o registro entre a leitura e a gravação
+        return Response.status(Response.Status.PRECONDITION_FAILED)
+                .entity(new ValidationExceptionMapper.ErrorBody(412, "Conflito de Versão",
+                        List.of("O registro foi alterado por outra requisição. Busque a versão atual e tente novamente.")))
+                .build();
+    }
+}
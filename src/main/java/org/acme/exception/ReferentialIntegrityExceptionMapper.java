@@ -0,0 +1,32 @@
+package org.acme.exception;
+
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+import org.hibernate.exception.ConstraintViolationException;
+import java.util.List;
+
+@Provider
+public class ReferentialIntegrityExceptionMapper implements ExceptionMapper<ConstraintViolationException> {
+
+    @Override
+    public Response toResponse(ConstraintViolationException exception) {
+        return switch (exception.getKind()) {
+            // Ex.: apagar um gênero ou desenvolvedora que ainda tem jogos associados
+            case FOREIGN_KEY -> conflict("A operação viola uma referência entre registros. "
+                    + "Verifique se o registro ainda é referenciado por jogos ou se os ids referenciados existem.");
+            case UNIQUE -> conflict("Já existe um registro com esses dados.");
+            // NOT NULL/CHECK passam pela validação antes de chegar ao banco: se chegaram, é erro do servidor
+            default -> Response.serverError()
+                    .entity(new ValidationExceptionMapper.ErrorBody(500, "Erro Interno",
+                            List.of("Não foi possível gravar o registro.")))
+                    .build();
+        };
+    }
+
+    private static Response conflict(String message) {
+        return Response.status(Response.Status.CONFLICT)
+                .entity(new ValidationExceptionMapper.ErrorBody(409, "Conflito", List.of(message)))
+                .build();
+    }
+}
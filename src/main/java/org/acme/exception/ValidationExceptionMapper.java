@@ -1,34 +1,27 @@
 package org.acme.exception;
 
-import jakarta.validation.ConstraintViolation;
+import jakarta.inject.Inject;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
-import java.util.ArrayList;
 import java.util.List;
 
 @Provider
 public class ValidationExceptionMapper implements ExceptionMapper<ConstraintViolationException> {
 
-    @Override
-    public Response toResponse(ConstraintViolationException exception) {
-        List<String> erros = new ArrayList<>();
+    private final ViolationMessages messages;
 
-        for (ConstraintViolation<?> violation : exception.getConstraintViolations()) {
-            String mensagem = violation.getMessage();
-            String campo = "";
-            try {
-                String[] parts = violation.getPropertyPath().toString().split("\\.");
-                campo = parts[parts.length - 1] + ": ";
-            } catch (Exception e) {
-                campo = "";
-            }
-            erros.add(campo + mensagem);
-        }
+    @Inject
+    public ValidationExceptionMapper(ViolationMessages messages) {
+        this.messages = messages;
+    }
 
+    @Override
+    public Response toResponse(ConstraintViolationException exception) {
+        // Formatadas só na serialização, e no máximo validation.max-errors delas
         return Response.status(400)
-                .entity(new ErrorBody(400, "Erro de Validação", erros))
+                .entity(new ErrorBody(400, "Erro de Validação", messages.list(exception.getConstraintViolations())))
                 .build();
     }
 
@@ -0,0 +1,109 @@
+package org.acme.exception;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Path;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Formata violações de validação como {@code "campo: mensagem"}. O campo é o
+ * nome do último nó do {@link Path}, lido pelo iterador. As mensagens vêm dos
+ * templates das constraints, então se repetem: cada combinação de campo e
+ * mensagem é montada uma vez e reaproveitada.
+ */
+@ApplicationScoped
+public class ViolationMessages {
+
+    // Teto para mensagens com o valor validado interpolado, que não se repetem
+    private static final int MAX_CACHED = 4096;
+
+    private final int maxErrors;
+    // mensagem -> campo -> "campo: mensagem"
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, String>> formatted = new ConcurrentHashMap<>();
+    private final AtomicInteger cached = new AtomicInteger();
+
+    @Inject
+    public ViolationMessages(@ConfigProperty(name = "validation.max-errors", defaultValue = "50") int maxErrors) {
+        if (maxErrors < 1) {
+            throw new IllegalArgumentException("validation.max-errors deve ser positivo: " + maxErrors);
+        }
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Nome do último nó do caminho, ou null para violações no próprio bean.
+     */
+    public static String field(ConstraintViolation<?> violation) {
+        Path.Node leaf = null;
+        for (Path.Node node : violation.getPropertyPath()) {
+            leaf = node;
+        }
+        return leaf == null ? null : leaf.getName();
+    }
+
+    public String format(ConstraintViolation<?> violation) {
+        String message = violation.getMessage();
+        String field = field(violation);
+        if (field == null) {
+            return message;
+        }
+        ConcurrentHashMap<String, String> byField = formatted.get(message);
+        if (byField != null) {
+            String text = byField.get(field);
+            if (text != null) {
+                return text;
+            }
+        }
+        String text = field + ": " + message;
+        if (cached.get() < MAX_CACHED) {
+            if (formatted.computeIfAbsent(message, k -> new ConcurrentHashMap<>()).putIfAbsent(field, text) == null) {
+                cached.incrementAndGet();
+            }
+        }
+        return text;
+    }
+
+    /**
+     * Até {@code validation.max-errors} violações formatadas, mais uma linha
+     * com quantas ficaram de fora. A lista formata cada item só quando é lida,
+     * durante a serialização da resposta.
+     */
+    public List<String> list(Collection<? extends ConstraintViolation<?>> violations) {
+        return new ViolationList(violations.toArray(new ConstraintViolation<?>[0]));
+    }
+
+    private final class ViolationList extends AbstractList<String> {
+
+        private final ConstraintViolation<?>[] violations;
+        private final int shown;
+
+        ViolationList(ConstraintViolation<?>[] violations) {
+            this.violations = violations;
+            this.shown = Math.min(violations.length, maxErrors);
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < shown) {
+                return format(violations[index]);
+            }
+            if (index == shown && shown < violations.length) {
+                int omitted = violations.length - shown;
+                return "... e mais " + omitted + (omitted == 1 ? " erro" : " erros");
+            }
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        @Override
+        public int size() {
+            return shown < violations.length ? shown + 1 : shown;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.acme.facets;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contagens por faceta devolvidas junto com a pesquisa de jogos.
+ */
+public class Facets {
+    public List<FacetValue> Decadas = new ArrayList<>();
+    public List<FacetValue> Generos = new ArrayList<>();
+    public List<FacetValue> Paises = new ArrayList<>();
+
+    public static class FacetValue {
+        public String Valor;
+        // Id do gênero, para filtrar/navegar (só na faceta Generos)
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public Long Id;
+        public long Total;
+
+        public FacetValue(String valor, Long id, long total) {
+            this.Valor = valor;
+            this.Id = id;
+            this.Total = total;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package org.acme.facets;
+
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.BadRequestException;
+import org.acme.Desenvolvedora;
+import org.acme.Genero;
+import org.acme.Jogo;
+import org.acme.events.CatalogChange;
+import org.acme.search.SearchFilter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Contadores das facetas da pesquisa de jogos, mantidos em memória. Cada ano
+ * de lançamento tem um balde com o total e as contagens por gênero e por
+ * desenvolvedora, então uma faixa de anos é a soma de poucos baldes e não um
+ * GROUP BY. Os baldes são atualizados pelos eventos de escrita, depois do
+ * commit, como o índice de pesquisa.
+ * <p>
+ * Como o índice, os contadores são locais a cada instância e só veem as
+ * escritas feitas nela. Com várias réplicas eles divergem até o próximo
+ * {@link #rebuild()}, agendado por {@code facets.rebuild-interval}, que
+ * recalcula tudo do banco. As escritas que chegam enquanto o rebuild lê o
+ * banco são guardadas e reaplicadas depois da troca, para que a leitura mais
+ * velha não apague uma escrita mais nova.
+ */
+@ApplicationScoped
+public class JogoFacets {
+
+    private static final String SEM_GENERO = "Sem gênero";
+    private static final String SEM_PAIS = "Sem desenvolvedora";
+
+    // Campos de cada jogo que entram nas facetas, para desfazer a contagem antiga em updates/deletes
+    private static class Row {
+        final int ano;
+        final Long generoId;
+        final Long desenvolvedoraId;
+
+        Row(int ano, Long generoId, Long desenvolvedoraId) {
+            this.ano = ano;
+            this.generoId = generoId;
+            this.desenvolvedoraId = desenvolvedoraId;
+        }
+    }
+
+    private static class Bucket {
+        long total;
+        final Map<Long, Long> porGenero = new HashMap<>();
+        final Map<Long, Long> porDesenvolvedora = new HashMap<>();
+    }
+
+    private final Map<Long, Row> rows = new HashMap<>();
+    private final TreeMap<Integer, Bucket> porAno = new TreeMap<>();
+    private final Map<Long, String> generos = new HashMap<>();
+    private final Map<Long, String> paises = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Escritas recebidas durante um rebuild; null fora dele (protegido pelo lock)
+    private List<CatalogChange> pending;
+
+    @Transactional
+    void onStart(@Observes StartupEvent event) {
+        rebuild();
+    }
+
+    @Scheduled(every = "${facets.rebuild-interval:off}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Recarrega tudo por projeções, sem materializar as entidades.
+     */
+    @Transactional
+    public synchronized void rebuild() {
+        beginRebuild();
+        try {
+            List<Object[]> jogos = Jogo.getEntityManager()
+                    .createQuery("select j.id, j.anoLancamento, j.generoId, j.desenvolvedoraId from Jogo j", Object[].class)
+                    .getResultList();
+            List<Object[]> nomes = Genero.getEntityManager()
+                    .createQuery("select g.id, g.nome from Genero g", Object[].class)
+                    .getResultList();
+            List<Object[]> origens = Desenvolvedora.getEntityManager()
+                    .createQuery("select d.id, d.paisDeOrigem from Desenvolvedora d", Object[].class)
+                    .getResultList();
+            finishRebuild(jogos, nomes, origens);
+        } finally {
+            // Leitura que falhou: para de guardar escritas
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // A partir daqui as escritas também são guardadas para depois da troca
+    void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Troca o conteúdo pelo lido do banco e reaplica as escritas recebidas desde beginRebuild
+    void finishRebuild(List<Object[]> jogos, List<Object[]> nomes, List<Object[]> origens) {
+        lock.writeLock().lock();
+        try {
+            rows.clear();
+            porAno.clear();
+            generos.clear();
+            paises.clear();
+            for (Object[] jogo : jogos) {
+                add((Long) jogo[0], new Row((Integer) jogo[1], (Long) jogo[2], (Long) jogo[3]));
+            }
+            for (Object[] genero : nomes) {
+                generos.put((Long) genero[0], (String) genero[1]);
+            }
+            for (Object[] desenvolvedora : origens) {
+                paises.put((Long) desenvolvedora[0], (String) desenvolvedora[1]);
+            }
+            // Reaplicar é seguro mesmo para uma escrita que a leitura já viu: cada uma grava o estado final
+            if (pending != null) {
+                pending.forEach(this::apply);
+            }
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) CatalogChange change) {
+        lock.writeLock().lock();
+        try {
+            apply(change);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(CatalogChange change) {
+        boolean deleted = change.operation == CatalogChange.Operation.DELETED;
+        if (change.type == Jogo.class) {
+            remove(change.id);
+            if (!deleted) {
+                Jogo jogo = (Jogo) change.entity;
+                add(change.id, new Row(jogo.anoLancamento, jogo.generoId, jogo.desenvolvedoraId));
+            }
+        } else if (change.type == Genero.class) {
+            if (deleted) {
+                generos.remove(change.id);
+            } else {
+                generos.put(change.id, ((Genero) change.entity).nome);
+            }
+        } else if (change.type == Desenvolvedora.class) {
+            if (deleted) {
+                paises.remove(change.id);
+            } else {
+                paises.put(change.id, ((Desenvolvedora) change.entity).paisDeOrigem);
+            }
+        }
+    }
+
+    /**
+     * Filtro de faixa de ano de lançamento para a pesquisa. Limites nulos ficam abertos.
+     */
+    public SearchFilter anoEntre(Integer anoMin, Integer anoMax) {
+        if (anoMin == null && anoMax == null) {
+            return SearchFilter.NONE;
+        }
+        if (anoMin != null && anoMax != null && anoMin > anoMax) {
+            throw new BadRequestException("anoMin não pode ser maior que anoMax.");
+        }
+        List<String> where = new ArrayList<>();
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (anoMin != null) {
+            where.add("anoLancamento >= :anoMin");
+            values.put("anoMin", anoMin);
+        }
+        if (anoMax != null) {
+            where.add("anoLancamento <= :anoMax");
+            values.put("anoMax", anoMax);
+        }
+        int min = anoMin == null ? Integer.MIN_VALUE : anoMin;
+        int max = anoMax == null ? Integer.MAX_VALUE : anoMax;
+        return new SearchFilter(String.join(" and ", where), values, id -> {
+            Row row = row(id);
+            return row != null && row.ano >= min && row.ano <= max;
+        });
+    }
+
+    /**
+     * Facetas dos jogos na faixa de anos. Com {@code ids} (resultado de um
+     * termo de busca, já filtrado), conta só esses jogos.
+     */
+    public Facets count(List<Long> ids, Integer anoMin, Integer anoMax) {
+        Map<Integer, Long> decadas = new TreeMap<>();
+        Map<Long, Long> porGenero = new HashMap<>();
+        Map<Long, Long> porDesenvolvedora = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            if (ids == null) {
+                int min = anoMin == null ? Integer.MIN_VALUE : anoMin;
+                int max = anoMax == null ? Integer.MAX_VALUE : anoMax;
+                NavigableMap<Integer, Bucket> faixa = porAno.subMap(min, true, max, true);
+                for (Map.Entry<Integer, Bucket> entry : faixa.entrySet()) {
+                    Bucket bucket = entry.getValue();
+                    decadas.merge(decada(entry.getKey()), bucket.total, Long::sum);
+                    bucket.porGenero.forEach((id, n) -> porGenero.merge(id, n, Long::sum));
+                    bucket.porDesenvolvedora.forEach((id, n) -> porDesenvolvedora.merge(id, n, Long::sum));
+                }
+            } else {
+                for (Long id : ids) {
+                    Row row = rows.get(id);
+                    if (row == null) {
+                        continue;
+                    }
+                    decadas.merge(decada(row.ano), 1L, Long::sum);
+                    porGenero.merge(key(row.generoId), 1L, Long::sum);
+                    porDesenvolvedora.merge(key(row.desenvolvedoraId), 1L, Long::sum);
+                }
+            }
+
+            Facets facets = new Facets();
+            decadas.forEach((decada, total) -> facets.Decadas.add(new Facets.FacetValue(decada + "s", null, total)));
+            porGenero.forEach((id, total) -> facets.Generos.add(
+                    new Facets.FacetValue(id < 0 ? SEM_GENERO : generos.getOrDefault(id, String.valueOf(id)), id < 0 ? null : id, total)));
+            Map<String, Long> porPais = new HashMap<>();
+            porDesenvolvedora.forEach((id, total) ->
+                    porPais.merge(id < 0 ? SEM_PAIS : paises.getOrDefault(id, SEM_PAIS), total, Long::sum));
+            porPais.forEach((pais, total) -> facets.Paises.add(new Facets.FacetValue(pais, null, total)));
+
+            Comparator<Facets.FacetValue> maisFrequentes = Comparator.<Facets.FacetValue>comparingLong(v -> -v.Total)
+                    .thenComparing(v -> v.Valor);
+            facets.Generos.sort(maisFrequentes);
+            facets.Paises.sort(maisFrequentes);
+            return facets;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Row row(long id) {
+        lock.readLock().lock();
+        try {
+            return rows.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Long id, Row row) {
+        rows.put(id, row);
+        Bucket bucket = porAno.computeIfAbsent(row.ano, ano -> new Bucket());
+        bucket.total++;
+        bucket.porGenero.merge(key(row.generoId), 1L, Long::sum);
+        bucket.porDesenvolvedora.merge(key(row.desenvolvedoraId), 1L, Long::sum);
+    }
+
+    private void remove(Long id) {
+        Row row = rows.remove(id);
+        if (row == null) {
+            return;
+        }
+        Bucket bucket = porAno.get(row.ano);
+        bucket.total--;
+        decrement(bucket.porGenero, key(row.generoId));
+        decrement(bucket.porDesenvolvedora, key(row.desenvolvedoraId));
+        if (bucket.total == 0) {
+            porAno.remove(row.ano);
+        }
+    }
+
+    private static void decrement(Map<Long, Long> counts, Long key) {
+        counts.computeIfPresent(key, (k, n) -> n > 1 ? n - 1 : null);
+    }
+
+    // Jogos sem gênero/desenvolvedora ficam sob a chave -1
+    private static Long key(Long id) {
+        return id == null ? -1L : id;
+    }
+
+    private static int decada(int ano) {
+        return ano / 10 * 10;
+    }
+}
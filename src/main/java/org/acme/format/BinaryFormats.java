@@ -0,0 +1,98 @@
+package org.acme.format;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Formatos de resposta além do JSON. CBOR e Smile usam cópias do ObjectMapper
+ * do Quarkus, então módulos, datas e anotações Jackson valem igual para os
+ * três formatos; muda só a codificação.
+ */
+@ApplicationScoped
+public class BinaryFormats {
+
+    public static final String CBOR = "application/cbor";
+    public static final String SMILE = "application/x-jackson-smile";
+
+    public static final MediaType CBOR_TYPE = MediaType.valueOf(CBOR);
+    public static final MediaType SMILE_TYPE = MediaType.valueOf(SMILE);
+
+    // Ordem de preferência quando o cliente aceita mais de um formato
+    private static final List<MediaType> SUPPORTED = List.of(MediaType.APPLICATION_JSON_TYPE, CBOR_TYPE, SMILE_TYPE);
+
+    @Inject
+    ObjectMapper json;
+
+    private ObjectMapper cbor;
+    private ObjectMapper smile;
+
+    @PostConstruct
+    void init() {
+        cbor = json.copyWith(new CBORFactory());
+        smile = json.copyWith(new SmileFactory());
+    }
+
+    /**
+     * Mapper do formato, ou null se o tipo não for um dos suportados.
+     */
+    public ObjectMapper mapperFor(MediaType type) {
+        if (type == null) {
+            return null;
+        }
+        if (type.isCompatible(CBOR_TYPE) && !type.isWildcardSubtype()) {
+            return cbor;
+        }
+        if (type.isCompatible(SMILE_TYPE) && !type.isWildcardSubtype()) {
+            return smile;
+        }
+        if (MediaType.APPLICATION_JSON_TYPE.isCompatible(type) && !type.isWildcardType() && !type.isWildcardSubtype()) {
+            return json;
+        }
+        return null;
+    }
+
+    /**
+     * Formato em que um corpo já serializado em {@code stored} deve ser
+     * devolvido para quem aceita {@code acceptable}: null quando o próprio
+     * {@code stored} serve (ou quando nenhum suportado serve).
+     */
+    public MediaType negotiate(MediaType stored, List<MediaType> acceptable) {
+        if (stored == null || mapperFor(stored) == null || acceptable.isEmpty()) {
+            return null;
+        }
+        for (MediaType accepted : acceptable) {
+            if (accepted.isCompatible(stored)) {
+                return null;
+            }
+            for (MediaType supported : SUPPORTED) {
+                if (accepted.isCompatible(supported)) {
+                    return supported;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Converte um corpo entre os formatos pela árvore do Jackson, sem passar
+     * pelas classes de domínio.
+     */
+    public byte[] transcode(byte[] body, MediaType from, MediaType to) {
+        try {
+            JsonNode tree = mapperFor(from).readTree(body);
+            return mapperFor(to).writeValueAsBytes(tree);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.acme.format;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Serializa as respostas em CBOR ou Smile quando o cliente pede um desses
+ * formatos no Accept. O JSON continua com o writer padrão do Quarkus.
+ */
+@Provider
+@Produces({BinaryFormats.CBOR, BinaryFormats.SMILE})
+public class BinaryMessageBodyWriter implements MessageBodyWriter<Object> {
+
+    @Inject
+    BinaryFormats formats;
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        // Corpos já prontos (bytes, texto, streaming) seguem pelos writers próprios
+        return !byte[].class.equals(type)
+                && !String.class.equals(type)
+                && !StreamingOutput.class.isAssignableFrom(type)
+                && formats.mapperFor(mediaType) != null;
+    }
+
+    @Override
+    public void writeTo(Object entity, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        ObjectMapper mapper = formats.mapperFor(mediaType);
+        // O container fecha o stream da resposta, não o Jackson
+        mapper.writerFor(mapper.constructType(genericType))
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValue(entityStream, entity);
+    }
+}
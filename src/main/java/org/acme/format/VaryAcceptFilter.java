@@ -0,0 +1,31 @@
+package org.acme.format;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.ext.Provider;
+
+import java.util.Arrays;
+
+/**
+ * A mesma URL responde em JSON, CBOR ou Smile conforme o Accept: caches
+ * intermediários precisam guardar uma cópia por formato.
+ */
+@Provider
+public class VaryAcceptFilter implements ContainerResponseFilter {
+
+    @Override
+    public void filter(ContainerRequestContext req, ContainerResponseContext res) {
+        if (!res.hasEntity() || !req.getUriInfo().getPath().contains("/v1/")) {
+            return;
+        }
+        // O replay idempotente já traz o Vary da resposta original: não duplica
+        String vary = res.getHeaderString(HttpHeaders.VARY);
+        if (vary == null) {
+            res.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        } else if (Arrays.stream(vary.split(",")).noneMatch(h -> h.trim().equalsIgnoreCase(HttpHeaders.ACCEPT))) {
+            res.getHeaders().putSingle(HttpHeaders.VARY, vary + ", " + HttpHeaders.ACCEPT);
+        }
+    }
+}
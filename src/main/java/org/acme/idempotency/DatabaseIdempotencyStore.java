@@ -0,0 +1,151 @@
+package org.acme.idempotency;
+
+import io.quarkus.arc.lookup.LookupIfProperty;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.ScheduledExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.exception.ConstraintViolationException;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Camada compartilhada no banco: uma linha por chave, com a chave como PK.
+ * A reserva é um INSERT; se outro nó já inseriu, a violação de chave única
+ * indica que a chave está em uso; qualquer outra falha do banco sobe para
+ * quem chamou. Linhas vencidas são apagadas em lotes pelo
+ * {@link #sweep()}.
+ */
+@ApplicationScoped
+@LookupIfProperty(name = "idempotency.store", stringValue = "database")
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+    private static final Logger LOG = Logger.getLogger(DatabaseIdempotencyStore.class);
+
+    @ConfigProperty(name = "idempotency.store.sweep-batch-size", defaultValue = "500")
+    int sweepBatchSize;
+
+    @ConfigProperty(name = "idempotency.storage.off-heap", defaultValue = "false")
+    boolean offHeap;
+
+    @Override
+    public Entry reserve(String key, Duration inProgressTimeout) {
+        if (key.length() > IdempotencyEntry.KEY_LENGTH) {
+            throw new IllegalArgumentException("Chave de idempotência maior que " + IdempotencyEntry.KEY_LENGTH + " caracteres");
+        }
+        for (int attempt = 0; attempt < 2; attempt++) {
+            if (insert(key, inProgressTimeout)) {
+                return null;
+            }
+            IdempotencyEntry existing = QuarkusTransaction.requiringNew().call(() -> IdempotencyEntry.findById(key));
+            if (existing == null) {
+                // Removida entre o INSERT e a leitura: tenta de novo
+                continue;
+            }
+            if (existing.expiresAt.isAfter(Instant.now())) {
+                return new Entry(existing.completed ? StoredResponse.fromBytes(existing.response, offHeap) : null);
+            }
+            // Vencida e ainda não varrida: apaga e tenta reservar de novo
+            QuarkusTransaction.requiringNew().run(() ->
+                    IdempotencyEntry.delete("idempotencyKey = ?1 and expiresAt < ?2", key, Instant.now()));
+        }
+        return new Entry(null);
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response, Duration ttl) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            IdempotencyEntry entry = IdempotencyEntry.findById(key);
+            if (entry == null) {
+                entry = new IdempotencyEntry();
+                entry.idempotencyKey = key;
+            }
+            entry.completed = true;
+            entry.expiresAt = Instant.now().plus(ttl);
+            entry.response = response.toBytes();
+            entry.persist();
+        });
+    }
+
+    @Override
+    public void release(String key) {
+        QuarkusTransaction.requiringNew().run(() -> IdempotencyEntry.deleteById(key));
+    }
+
+    /**
+     * Apaga as chaves vencidas em lotes curtos, um por transação, para não
+     * segurar locks na tabela inteira.
+     */
+    @Scheduled(every = "${idempotency.store.sweep-interval:PT1M}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP,
+            skipExecutionIf = InactiveStore.class)
+    void sweep() {
+        int removed;
+        int total = 0;
+        do {
+            removed = QuarkusTransaction.requiringNew().call(() -> {
+                List<String> expired = IdempotencyEntry.getEntityManager()
+                        .createQuery("select e.idempotencyKey from IdempotencyEntry e where e.expiresAt < :now", String.class)
+                        .setParameter("now", Instant.now())
+                        .setMaxResults(sweepBatchSize)
+                        .getResultList();
+                return expired.isEmpty() ? 0 : (int) IdempotencyEntry.delete("idempotencyKey in ?1", expired);
+            });
+            total += removed;
+        } while (removed == sweepBatchSize);
+
+        if (total > 0) {
+            LOG.debugf("Removidas %d chaves de idempotência vencidas", total);
+        }
+    }
+
+    private boolean insert(String key, Duration inProgressTimeout) {
+        try {
+            QuarkusTransaction.requiringNew().run(() -> {
+                IdempotencyEntry entry = new IdempotencyEntry();
+                entry.idempotencyKey = key;
+                entry.completed = false;
+                entry.expiresAt = Instant.now().plus(inProgressTimeout);
+                entry.persist();
+                IdempotencyEntry.flush();
+            });
+            return true;
+        } catch (RuntimeException e) {
+            if (duplicateKey(e)) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    // Só a violação da chave primária quer dizer "já reservada"; o resto é falha de verdade
+    private static boolean duplicateKey(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * O {@code @LookupIfProperty} só vale para a injeção: sem isto o sweep
+     * rodaria contra o banco mesmo com {@code idempotency.store=memory}.
+     */
+    @Singleton
+    static class InactiveStore implements Scheduled.SkipPredicate {
+
+        private final boolean active = "database".equals(ConfigProvider.getConfig()
+                .getOptionalValue("idempotency.store", String.class).orElse(null));
+
+        @Override
+        public boolean test(ScheduledExecution execution) {
+            return !active;
+        }
+    }
+}
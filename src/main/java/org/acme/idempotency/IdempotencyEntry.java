@@ -0,0 +1,32 @@
+package org.acme.idempotency;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Linha da tabela de idempotência usada pelo {@link DatabaseIdempotencyStore}.
+ * A chave primária garante que só um nó consiga reservar cada chave.
+ */
+@Entity
+@Table(name = "idempotency_entry", indexes = @Index(name = "idx_idempotency_expires_at", columnList = "expiresAt"))
+public class IdempotencyEntry extends PanacheEntityBase {
+
+    // Tamanho da coluna: método + path + X-Idempotency-Key precisam caber aqui
+    public static final int KEY_LENGTH = 512;
+
+    @Id
+    @Column(name = "idempotency_key", length = KEY_LENGTH)
+    public String idempotencyKey;
+
+    public boolean completed;
+
+    public Instant expiresAt;
+
+    // StoredResponse.toBytes(); null enquanto em andamento
+    @Lob
+    public byte[] response;
+
+    public IdempotencyEntry() {}
+}
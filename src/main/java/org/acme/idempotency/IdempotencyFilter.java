@@ -2,35 +2,112 @@ package org.acme.idempotency;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.Priority;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.Priorities;
 import jakarta.ws.rs.container.*;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import org.acme.format.BinaryFormats;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.Method;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 
 @Provider
 @ApplicationScoped
 @Priority(Priorities.HEADER_DECORATOR)
-public class IdempotencyFilter implements ContainerRequestFilter, ContainerResponseFilter {
+public class IdempotencyFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor, MeterBinder {
 
+    private static final Logger LOG = Logger.getLogger(IdempotencyFilter.class);
     private static final String IDEMPOTENCY_KEY_HEADER = "X-Idempotency-Key";
     private static final String IDEMPOTENT_CONTEXT_PROPERTY = "idempotent-context";
 
-    private final Cache<String, IdempotencyRecord> cache;
+    // Cache local (near-cache) na frente da camada compartilhada
+    private Cache<String, IdempotencyRecord> cache;
+
+    private IdempotencyStore store;
+
+    // Desfecho de cada requisição com chave: executada, replay ou 409
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+
+    @Inject
+    Instance<IdempotencyStore> stores;
+
+    @Inject
+    BinaryFormats formats;
 
     @Context
     ResourceInfo resourceInfo;
 
-    public IdempotencyFilter() {
+    // Quanto uma requisição duplicada espera pela original em andamento (0 = 409 imediato)
+    @ConfigProperty(name = "idempotency.in-flight-wait", defaultValue = "PT5S")
+    Duration inFlightWait;
+
+    // Reserva que nunca foi concluída (ex.: falha antes do filtro de resposta) é liberada após esse tempo
+    @ConfigProperty(name = "idempotency.in-progress-timeout", defaultValue = "PT30S")
+    Duration inProgressTimeout;
+
+    // Limite do cache em bytes armazenados, não em número de chaves
+    @ConfigProperty(name = "idempotency.storage.max-bytes", defaultValue = "67108864")
+    long maxBytes;
+
+    // Corpos a partir desse tamanho são guardados comprimidos (-1 desativa)
+    @ConfigProperty(name = "idempotency.storage.compress-threshold", defaultValue = "1024")
+    int compressThreshold;
+
+    @ConfigProperty(name = "idempotency.storage.off-heap", defaultValue = "false")
+    boolean offHeap;
+
+    @PostConstruct
+    void init() {
         this.cache = Caffeine.newBuilder()
-                .maximumSize(1000)
-                .expireAfterWrite(Duration.ofHours(1))
+                .maximumWeight(maxBytes)
+                .weigher((String key, IdempotencyRecord record) -> key.length() * 2 + record.weight())
+                .expireAfter(new RecordExpiry())
+                .recordStats()
                 .build();
+        this.store = stores.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "idempotency");
+        outcome(registry, "executed", executed);
+        outcome(registry, "replayed", replayed);
+        outcome(registry, "conflict", conflicts);
+    }
+
+    private static void outcome(MeterRegistry registry, String outcome, LongAdder adder) {
+        FunctionCounter.builder("catalog.idempotency.requests", adder, LongAdder::sum)
+                .tag("outcome", outcome)
+                .register(registry);
     }
 
     @Override
@@ -57,32 +134,189 @@ public class IdempotencyFilter implements ContainerRequestFilter, ContainerRespo
         String cacheKey = requestContext.getMethod() + ":" +
                 requestContext.getUriInfo().getPath() + ":" +
                 idempotencyKey;
-
-        IdempotencyRecord record = cache.getIfPresent(cacheKey);
-
-        if (record != null) {
-            // Ajuste para Replay: Retorna 200 em vez de 201 e adiciona o Header
-            int status = record.status == 201 ? 200 : record.status;
-
-            requestContext.abortWith(Response.status(status)
-                    .entity(record.body)
-                    .header("X-Idempotency-Status", "IDEMPOTENT_REPLAY")
+        if (cacheKey.length() > IdempotencyEntry.KEY_LENGTH) {
+            requestContext.abortWith(Response.status(400)
+                    .entity("O cabeçalho X-Idempotency-Key é longo demais para esta operação.")
                     .build());
             return;
         }
 
-        requestContext.setProperty(IDEMPOTENT_CONTEXT_PROPERTY,
-                new IdempotentContext(cacheKey, annotation.expireAfter()));
+        long deadline = System.nanoTime() + inFlightWait.toNanos();
+        while (true) {
+            // Reserva atômica: só a primeira requisição com a chave segue para o recurso
+            IdempotencyRecord reservation = IdempotencyRecord.inProgress(
+                    inProgressTimeout.toNanos(), TimeUnit.SECONDS.toNanos(annotation.expireAfter()));
+            IdempotencyRecord record = cache.asMap().putIfAbsent(cacheKey, reservation);
+
+            if (record == null) {
+                IdempotencyStore.Entry shared;
+                try {
+                    shared = store.reserve(cacheKey, inProgressTimeout);
+                } catch (RuntimeException e) {
+                    // Sem a camada compartilhada a requisição falha (5xx) e a chave fica livre localmente
+                    reservation.fail();
+                    cache.asMap().remove(cacheKey, reservation);
+                    throw e;
+                }
+                if (shared == null) {
+                    executed.increment();
+                    requestContext.setProperty(IDEMPOTENT_CONTEXT_PROPERTY,
+                            new IdempotentContext(cacheKey, annotation.expireAfter(), reservation));
+                    return;
+                }
+                if (shared.completed()) {
+                    // Concluída em outro nó (ou antes de um redeploy): traz para o cache local
+                    reservation.complete(shared.response);
+                    cache.asMap().replace(cacheKey, reservation, reservation);
+                    requestContext.abortWith(replayed(reservation, requestContext));
+                    return;
+                }
+                // Em andamento em outro nó
+                reservation.fail();
+                cache.asMap().remove(cacheKey, reservation);
+                requestContext.abortWith(conflict());
+                return;
+            }
+
+            if (record.state == IdempotencyRecord.State.COMPLETED) {
+                requestContext.abortWith(replayed(record, requestContext));
+                return;
+            }
+
+            // Duplicata em andamento: espera o resultado da original ou responde 409
+            IdempotencyRecord outcome = await(record, deadline);
+            if (outcome == null) {
+                requestContext.abortWith(conflict());
+                return;
+            }
+            if (outcome.state == IdempotencyRecord.State.COMPLETED) {
+                requestContext.abortWith(replayed(outcome, requestContext));
+                return;
+            }
+            // A original falhou e liberou a chave: tenta reservar de novo
+        }
     }
 
     @Override
     public void filter(ContainerRequestContext req, ContainerResponseContext res) {
         IdempotentContext context = (IdempotentContext) req.getProperty(IDEMPOTENT_CONTEXT_PROPERTY);
         if (context != null) {
-            // Só salva se for sucesso (2xx)
-            if (res.getStatus() >= 200 && res.getStatus() < 300) {
-                cache.put(context.cacheKey, new IdempotencyRecord(res.getStatus(), res.getEntity()));
+            // Só salva se for sucesso (2xx); em caso de erro a chave é liberada para nova tentativa
+            if (res.getStatus() < 200 || res.getStatus() >= 300) {
+                release(context);
+            } else if (res.hasEntity()) {
+                // Os bytes do corpo são capturados em aroundWriteTo, durante a serialização
+                context.status = res.getStatus();
+            } else {
+                complete(context, StoredResponse.of(res.getStatus(), res.getStringHeaders(), new byte[0], compressThreshold, offHeap));
+            }
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext ctx) throws IOException {
+        IdempotentContext context = (IdempotentContext) ctx.getProperty(IDEMPOTENT_CONTEXT_PROPERTY);
+        if (context == null || context.status == 0) {
+            ctx.proceed();
+            return;
+        }
+
+        ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        OutputStream original = ctx.getOutputStream();
+        ctx.setOutputStream(new TeeOutputStream(original, copy));
+        try {
+            ctx.proceed();
+        } catch (IOException | RuntimeException e) {
+            release(context);
+            throw e;
+        } finally {
+            ctx.setOutputStream(original);
+        }
+        complete(context, StoredResponse.of(context.status, stringHeaders(ctx), copy.toByteArray(), compressThreshold, offHeap));
+    }
+
+    private void complete(IdempotentContext context, StoredResponse response) {
+        IdempotencyRecord record = context.record;
+        try {
+            store.complete(context.cacheKey, response, Duration.ofSeconds(context.expireAfter));
+        } catch (RuntimeException e) {
+            // A resposta já foi enviada; sem a camada compartilhada o replay fica restrito a este nó
+            LOG.warnf(e, "Falha ao gravar a chave de idempotência %s na camada compartilhada", context.cacheKey);
+        }
+        record.complete(response);
+        // Regrava para que expiração e peso reflitam a resposta concluída
+        cache.asMap().replace(context.cacheKey, record, record);
+    }
+
+    private void release(IdempotentContext context) {
+        try {
+            store.release(context.cacheKey);
+        } finally {
+            context.record.fail();
+            cache.asMap().remove(context.cacheKey, context.record);
+        }
+    }
+
+    private static MultivaluedMap<String, String> stringHeaders(WriterInterceptorContext ctx) {
+        MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+        ctx.getHeaders().forEach((name, values) -> {
+            if (!"content-type".equalsIgnoreCase(name)) {
+                values.forEach(value -> headers.add(name, String.valueOf(value)));
             }
+        });
+        if (ctx.getMediaType() != null) {
+            headers.putSingle("Content-Type", ctx.getMediaType().toString());
+        }
+        return headers;
+    }
+
+    private Response replayed(IdempotencyRecord record, ContainerRequestContext request) {
+        replayed.increment();
+        return replay(record, request);
+    }
+
+    private Response conflict() {
+        conflicts.increment();
+        return inProgress();
+    }
+
+    private Response replay(IdempotencyRecord record, ContainerRequestContext request) {
+        // Ajuste para Replay: Retorna 200 em vez de 201 e adiciona o Header
+        int status = record.response.status == 201 ? 200 : record.response.status;
+
+        // Os bytes guardados vão direto para a resposta, sem nova serialização
+        Response.ResponseBuilder builder = record.response.replay(status);
+
+        // A original foi gravada no formato que ela pediu; se este cliente aceita outro, converte
+        MediaType stored = record.response.mediaType();
+        MediaType target = formats.negotiate(stored, request.getAcceptableMediaTypes());
+        if (target != null) {
+            builder.entity(formats.transcode(record.response.body(), stored, target)).type(target);
+        }
+        return builder.header("X-Idempotency-Status", "IDEMPOTENT_REPLAY").build();
+    }
+
+    private static Response inProgress() {
+        return Response.status(Response.Status.CONFLICT)
+                .entity("Uma requisição com esta chave de idempotência ainda está em processamento.")
+                .header("X-Idempotency-Status", "IN_PROGRESS")
+                .build();
+    }
+
+    private static IdempotencyRecord await(IdempotencyRecord record, long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            return null;
+        }
+        try {
+            return record.done.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
         }
     }
 
@@ -90,17 +324,94 @@ public class IdempotencyFilter implements ContainerRequestFilter, ContainerRespo
     public static class IdempotentContext {
         public String cacheKey;
         public int expireAfter;
+        public IdempotencyRecord record;
+        // Status da resposta de sucesso aguardando a captura do corpo
+        public int status;
 
-        public IdempotentContext(String cacheKey, int expireAfter) {
+        public IdempotentContext(String cacheKey, int expireAfter, IdempotencyRecord record) {
             this.cacheKey = cacheKey;
             this.expireAfter = expireAfter;
+            this.record = record;
         }
     }
 
+    /**
+     * Estado de uma chave: IN_PROGRESS enquanto a requisição original executa,
+     * COMPLETED com a resposta guardada, FAILED quando a original não teve
+     * sucesso (a chave é removida e pode ser usada de novo).
+     */
     public static class IdempotencyRecord {
-        public int status;
-        public Object body;
-        public IdempotencyRecord(int s, Object b) { this.status = s; this.body = b; }
-        public IdempotencyRecord() {}
+        public enum State { IN_PROGRESS, COMPLETED, FAILED }
+
+        public volatile State state;
+        public volatile StoredResponse response;
+        final long inProgressNanos;
+        final long ttlNanos;
+        final CompletableFuture<IdempotencyRecord> done = new CompletableFuture<>();
+
+        private IdempotencyRecord(State state, long inProgressNanos, long ttlNanos) {
+            this.state = state;
+            this.inProgressNanos = inProgressNanos;
+            this.ttlNanos = ttlNanos;
+        }
+
+        static IdempotencyRecord inProgress(long inProgressNanos, long ttlNanos) {
+            return new IdempotencyRecord(State.IN_PROGRESS, inProgressNanos, ttlNanos);
+        }
+
+        void complete(StoredResponse r) {
+            this.response = r;
+            this.state = State.COMPLETED;
+            done.complete(this);
+        }
+
+        void fail() {
+            this.state = State.FAILED;
+            done.complete(this);
+        }
+
+        int weight() {
+            StoredResponse r = response;
+            return r == null ? 64 : r.weight();
+        }
+    }
+
+    // Expiração por entrada: reserva em andamento usa o timeout; concluída usa o @Idempotent(expireAfter)
+    private static class RecordExpiry implements Expiry<String, IdempotencyRecord> {
+        @Override
+        public long expireAfterCreate(String key, IdempotencyRecord record, long currentTime) {
+            return record.state == IdempotencyRecord.State.IN_PROGRESS ? record.inProgressNanos : record.ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, IdempotencyRecord record, long currentTime, long currentDuration) {
+            return record.state == IdempotencyRecord.State.IN_PROGRESS ? record.inProgressNanos : record.ttlNanos;
+        }
+
+        @Override
+        public long expireAfterRead(String key, IdempotencyRecord record, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static class TeeOutputStream extends FilterOutputStream {
+        private final OutputStream copy;
+
+        TeeOutputStream(OutputStream out, OutputStream copy) {
+            super(out);
+            this.copy = copy;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            copy.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            copy.write(b, off, len);
+        }
     }
 }
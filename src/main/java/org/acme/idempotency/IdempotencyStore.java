@@ -0,0 +1,44 @@
+package org.acme.idempotency;
+
+import java.time.Duration;
+
+/**
+ * Camada compartilhada de idempotência, atrás do cache em memória do
+ * {@link IdempotencyFilter}. Permite que um retry depois de um redeploy, ou
+ * que caia em outra réplica, encontre a resposta original.
+ *
+ * <p>Implementações precisam garantir que {@link #reserve} seja atômico entre
+ * todos os nós (ex.: chave única no banco, SET NX em um cache compartilhado).
+ * A escolhida é definida por {@code idempotency.store}.</p>
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Estado de uma chave já existente na camada compartilhada.
+     */
+    class Entry {
+        // null enquanto a requisição original ainda executa em algum nó
+        public final StoredResponse response;
+
+        public Entry(StoredResponse response) {
+            this.response = response;
+        }
+
+        public boolean completed() {
+            return response != null;
+        }
+    }
+
+    /**
+     * Tenta reservar a chave. Retorna {@code null} quando a reserva foi feita
+     * por esta chamada; caso contrário, o estado atual da chave.
+     */
+    Entry reserve(String key, Duration inProgressTimeout);
+
+    void complete(String key, StoredResponse response, Duration ttl);
+
+    /**
+     * Libera a chave após uma falha, para que possa ser usada de novo.
+     */
+    void release(String key);
+}
@@ -0,0 +1,28 @@
+package org.acme.idempotency;
+
+import io.quarkus.arc.lookup.LookupUnlessProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.Duration;
+
+/**
+ * Sem camada compartilhada: o cache em memória do filtro é a única fonte.
+ * Padrão para desenvolvimento e instância única.
+ */
+@ApplicationScoped
+@LookupUnlessProperty(name = "idempotency.store", stringValue = "database", lookupIfMissing = true)
+public class LocalIdempotencyStore implements IdempotencyStore {
+
+    @Override
+    public Entry reserve(String key, Duration inProgressTimeout) {
+        return null;
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response, Duration ttl) {
+    }
+
+    @Override
+    public void release(String key) {
+    }
+}
@@ -0,0 +1,205 @@
+package org.acme.idempotency;
+
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Resposta já serializada guardada para replay: status, headers relevantes e
+ * os bytes exatos do corpo. O replay devolve esses bytes sem passar de novo
+ * pelo Jackson. O corpo pode ficar comprimido e/ou fora do heap.
+ */
+public final class StoredResponse {
+
+    // Headers que pertencem à resposta atual, não à original. O corpo é
+    // capturado antes da compressão HTTP, então o replay é comprimido de novo
+    // conforme o Accept-Encoding de quem pede.
+    private static final Set<String> SKIPPED_HEADERS = Set.of(
+            "content-length", "content-encoding", "transfer-encoding", "connection", "date",
+            "x-ratelimit-limit", "x-ratelimit-remaining", "x-idempotency-status");
+
+    // Custo fixo aproximado de cada entrada (objeto, arrays, referências)
+    private static final int OVERHEAD_BYTES = 96;
+
+    public final int status;
+    // nome, valor, nome, valor...
+    private final String[] headers;
+    private final ByteBuffer payload;
+    private final boolean compressed;
+    private final int length;
+
+    private StoredResponse(int status, String[] headers, ByteBuffer payload, boolean compressed, int length) {
+        this.status = status;
+        this.headers = headers;
+        this.payload = payload;
+        this.compressed = compressed;
+        this.length = length;
+    }
+
+    /**
+     * @param compressThreshold corpos a partir desse tamanho são comprimidos (negativo desativa)
+     * @param offHeap           guarda o corpo em um buffer direto, fora do heap
+     */
+    public static StoredResponse of(int status, MultivaluedMap<String, String> responseHeaders, byte[] body,
+                                    int compressThreshold, boolean offHeap) {
+        List<String> pairs = new ArrayList<>();
+        for (Map.Entry<String, List<String>> header : responseHeaders.entrySet()) {
+            if (SKIPPED_HEADERS.contains(header.getKey().toLowerCase())) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                pairs.add(header.getKey());
+                pairs.add(value);
+            }
+        }
+
+        byte[] stored = body;
+        boolean compressed = false;
+        if (compressThreshold >= 0 && body.length >= compressThreshold) {
+            byte[] deflated = deflate(body);
+            if (deflated.length < body.length) {
+                stored = deflated;
+                compressed = true;
+            }
+        }
+
+        ByteBuffer payload = offHeap ? ByteBuffer.allocateDirect(stored.length) : ByteBuffer.allocate(stored.length);
+        payload.put(stored).flip();
+        return new StoredResponse(status, pairs.toArray(new String[0]), payload.asReadOnlyBuffer(), compressed, body.length);
+    }
+
+    public byte[] body() {
+        byte[] stored = new byte[payload.remaining()];
+        payload.duplicate().get(stored);
+        return compressed ? inflate(stored, length) : stored;
+    }
+
+    /**
+     * Content-Type do corpo guardado, ou null quando não há corpo.
+     */
+    public MediaType mediaType() {
+        if (length == 0) {
+            return null;
+        }
+        for (int i = 0; i < headers.length; i += 2) {
+            if ("content-type".equalsIgnoreCase(headers[i])) {
+                return MediaType.valueOf(headers[i + 1]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Peso da entrada no cache, em bytes (corpo armazenado + headers).
+     */
+    public int weight() {
+        int weight = OVERHEAD_BYTES + payload.capacity();
+        for (String part : headers) {
+            weight += part.length() * 2;
+        }
+        return weight;
+    }
+
+    public Response.ResponseBuilder replay(int replayStatus) {
+        Response.ResponseBuilder builder = Response.status(replayStatus);
+        for (int i = 0; i < headers.length; i += 2) {
+            builder.header(headers[i], headers[i + 1]);
+        }
+        if (length > 0) {
+            builder.entity(body());
+        }
+        return builder;
+    }
+
+    /**
+     * Formato binário usado pelos {@link IdempotencyStore}s persistentes. O
+     * corpo vai como está armazenado (comprimido ou não).
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.capacity() + 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(status);
+            out.writeInt(headers.length);
+            for (String part : headers) {
+                out.writeUTF(part);
+            }
+            out.writeBoolean(compressed);
+            out.writeInt(length);
+            byte[] stored = new byte[payload.remaining()];
+            payload.duplicate().get(stored);
+            out.writeInt(stored.length);
+            out.write(stored);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static StoredResponse fromBytes(byte[] data, boolean offHeap) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int status = in.readInt();
+            String[] headers = new String[in.readInt()];
+            for (int i = 0; i < headers.length; i++) {
+                headers[i] = in.readUTF();
+            }
+            boolean compressed = in.readBoolean();
+            int length = in.readInt();
+            byte[] stored = new byte[in.readInt()];
+            in.readFully(stored);
+
+            ByteBuffer payload = offHeap ? ByteBuffer.allocateDirect(stored.length) : ByteBuffer.allocate(stored.length);
+            payload.put(stored).flip();
+            return new StoredResponse(status, headers, payload.asReadOnlyBuffer(), compressed, length);
+        } catch (IOException e) {
+            throw new IllegalStateException("Resposta idempotente armazenada está corrompida", e);
+        }
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            byte[] out = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                read += inflater.inflate(out, read, length - read);
+            }
+            return out;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Resposta idempotente armazenada está corrompida", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
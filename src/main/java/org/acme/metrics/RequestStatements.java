@@ -0,0 +1,20 @@
+package org.acme.metrics;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * Quantidade de comandos SQL preparados durante a requisição atual.
+ */
+@RequestScoped
+public class RequestStatements {
+
+    private int count;
+
+    void increment() {
+        count++;
+    }
+
+    public int count() {
+        return count;
+    }
+}
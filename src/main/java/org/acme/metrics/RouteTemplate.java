@@ -0,0 +1,44 @@
+package org.acme.metrics;
+
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.container.ResourceInfo;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Template da rota do método que atende a requisição (ex.: "/v1/jogos/{id}").
+ * Usado no lugar do path real onde o valor vira chave ou tag de métrica.
+ */
+public final class RouteTemplate {
+
+    public static final String UNMATCHED = "UNMATCHED";
+
+    private static final Map<Method, String> ROUTES = new ConcurrentHashMap<>();
+
+    private RouteTemplate() {}
+
+    /**
+     * Retorna o template da rota, ou {@code null} se a requisição não casou
+     * com nenhum método de recurso.
+     */
+    public static String of(ResourceInfo resourceInfo) {
+        Method method = resourceInfo.getResourceMethod();
+        if (method == null) {
+            return null;
+        }
+        return ROUTES.computeIfAbsent(method, m -> template(resourceInfo.getResourceClass(), m));
+    }
+
+    private static String template(Class<?> resource, Method method) {
+        Path classPath = resource.getAnnotation(Path.class);
+        Path methodPath = method.getAnnotation(Path.class);
+        String template = classPath == null ? "" : classPath.value();
+        if (methodPath != null) {
+            String sub = methodPath.value();
+            template = template + (sub.startsWith("/") ? sub : "/" + sub);
+        }
+        return template;
+    }
+}
@@ -0,0 +1,30 @@
+package org.acme.metrics;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta cada SQL que o Hibernate prepara na requisição em andamento. Fora de
+ * uma requisição (startup, tarefas agendadas) não conta nada.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class StatementCounter implements StatementInspector {
+
+    // StatementInspector estende Serializable; o bean nunca é serializado
+    private static final long serialVersionUID = 1L;
+
+    @Inject
+    RequestStatements statements;
+
+    @Override
+    public String inspect(String sql) {
+        if (Arc.container().requestContext().isActive()) {
+            statements.increment();
+        }
+        return sql;
+    }
+}
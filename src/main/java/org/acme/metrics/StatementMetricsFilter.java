@@ -0,0 +1,46 @@
+package org.acme.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Registra quantos SQLs cada requisição executou, por rota. Consultas feitas
+ * durante a escrita de um corpo em streaming acontecem depois deste filtro e
+ * não entram na conta.
+ */
+@Provider
+@ApplicationScoped
+public class StatementMetricsFilter implements ContainerResponseFilter {
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    RequestStatements statements;
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext req, ContainerResponseContext res) {
+        String route = RouteTemplate.of(resourceInfo);
+        if (route == null) {
+            return;
+        }
+        DistributionSummary.builder("catalog.db.statements")
+                .description("Comandos SQL por requisição")
+                .tag("method", req.getMethod())
+                .tag("route", route)
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                .register(registry)
+                .record(statements.count());
+    }
+}
@@ -0,0 +1,149 @@
+package org.acme.multiget;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Junta buscas por id concorrentes em uma consulta só. A primeira busca de um
+ * tipo abre um lote e espera até {@code window} (ou até o lote encher); as que
+ * chegam nesse meio tempo entram no mesmo lote e esperam o resultado. Quem abriu
+ * o lote executa o {@code id in (...)} na própria thread e entrega o resultado
+ * às demais, então não há thread de fundo.
+ * <p>
+ * A janela só é esperada quando já há uma consulta do tipo em andamento, ou
+ * seja, quando outras buscas estão de fato chegando juntas. Uma busca isolada
+ * vai direto ao banco, sem pagar a janela. Com janela zero cada busca vai
+ * direto ao banco.
+ */
+public final class IdBatcher {
+
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Map<Class<?>, Lane> lanes = new ConcurrentHashMap<>();
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedIds = new LongAdder();
+
+    public IdBatcher(Duration window, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Tamanho máximo do lote inválido: " + maxBatchSize);
+        }
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Busca a entidade pelo id, possivelmente junto com buscas concorrentes do
+     * mesmo tipo. Retorna null se ela não existe.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T find(IdLookup<T> lookup, Long id) {
+        if (windowNanos <= 0 || maxBatchSize == 1) {
+            List<T> found = lookup.find(List.of(id));
+            return found.isEmpty() ? null : found.get(0);
+        }
+
+        Lane lane = lanes.computeIfAbsent(lookup.type, type -> new Lane());
+        Batch batch;
+        CompletableFuture<Object> result;
+        boolean leader;
+        synchronized (lane) {
+            leader = lane.open == null;
+            if (leader) {
+                lane.open = new Batch();
+            }
+            batch = lane.open;
+            result = batch.pending.computeIfAbsent(id, k -> new CompletableFuture<>());
+            if (batch.pending.size() >= maxBatchSize || (leader && lane.loading == 0)) {
+                // Lote cheio, ou nenhuma consulta em andamento com quem agrupar: as próximas
+                // buscas abrem outro lote, e o líder não espera a janela
+                lane.open = null;
+                batch.full.countDown();
+            }
+        }
+
+        if (leader) {
+            awaitWindow(batch);
+            synchronized (lane) {
+                if (lane.open == batch) {
+                    lane.open = null;
+                }
+                lane.loading++;
+            }
+            try {
+                load(lookup, batch);
+            } finally {
+                synchronized (lane) {
+                    lane.loading--;
+                }
+            }
+        }
+
+        try {
+            return (T) result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public long batches() {
+        return batches.sum();
+    }
+
+    public long batchedIds() {
+        return batchedIds.sum();
+    }
+
+    private void awaitWindow(Batch batch) {
+        try {
+            batch.full.await(windowNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            // Executa o lote com o que já tem
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Chamado só depois que o lote saiu da lane: ninguém mais altera o pending
+    private <T> void load(IdLookup<T> lookup, Batch batch) {
+        List<Long> ids = new ArrayList<>(batch.pending.keySet());
+        batches.increment();
+        batchedIds.add(ids.size());
+        try {
+            Map<Long, T> byId = new HashMap<>();
+            for (T entity : lookup.find(ids)) {
+                byId.put(lookup.idOf(entity), entity);
+            }
+            batch.pending.forEach((id, future) -> future.complete(byId.get(id)));
+        } catch (Throwable e) {
+            // Quem espera no lote recebe o mesmo erro, em vez de ficar preso no join
+            batch.pending.values().forEach(future -> future.completeExceptionally(e));
+            if (e instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    private static final class Lane {
+        // Lote aceitando ids e consultas em andamento; guardados pelo monitor da lane
+        Batch open;
+        int loading;
+    }
+
+    private static final class Batch {
+        final Map<Long, CompletableFuture<Object>> pending = new LinkedHashMap<>();
+        final CountDownLatch full = new CountDownLatch(1);
+    }
+}
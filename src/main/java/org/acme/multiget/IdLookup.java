@@ -0,0 +1,32 @@
+package org.acme.multiget;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Como buscar várias entidades de um tipo por id em uma consulta só
+ * ({@code id in (...)}), e como ler o id de cada uma de volta.
+ */
+public final class IdLookup<T> {
+
+    public final Class<T> type;
+    private final Function<List<Long>, List<T>> finder;
+    private final Function<T, Long> idOf;
+
+    public IdLookup(Class<T> type, Function<List<Long>, List<T>> finder, Function<T, Long> idOf) {
+        this.type = type;
+        this.finder = finder;
+        this.idOf = idOf;
+    }
+
+    /**
+     * Resultado na ordem do banco; ids inexistentes simplesmente não aparecem.
+     */
+    public List<T> find(List<Long> ids) {
+        return finder.apply(ids);
+    }
+
+    public Long idOf(T entity) {
+        return idOf.apply(entity);
+    }
+}
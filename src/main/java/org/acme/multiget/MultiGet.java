@@ -0,0 +1,140 @@
+package org.acme.multiget;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import org.acme.cache.EntityCache;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Leituras por id do catálogo: o multi-get ({@code ?ids=1,2,3}) com um único
+ * {@code id in (...)} para o que não está no cache, e o GET por id com as
+ * faltas de cache agrupadas pelo {@link IdBatcher}.
+ */
+@ApplicationScoped
+public class MultiGet implements MeterBinder {
+
+    private final EntityCache entityCache;
+    private final IdBatcher batcher;
+    private final int maxIds;
+
+    @Inject
+    public MultiGet(EntityCache entityCache,
+                    @ConfigProperty(name = "multi-get.max-ids", defaultValue = "100") int maxIds,
+                    @ConfigProperty(name = "multi-get.batch.window", defaultValue = "PT0.002S") Duration window,
+                    @ConfigProperty(name = "multi-get.batch.max-size", defaultValue = "64") int maxBatchSize) {
+        this.entityCache = entityCache;
+        this.maxIds = maxIds;
+        this.batcher = new IdBatcher(window, maxBatchSize);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("catalog.multiget.batches", batcher, IdBatcher::batches)
+                .description("Consultas id in (...) feitas pelo agrupamento de GETs por id")
+                .register(registry);
+        FunctionCounter.builder("catalog.multiget.batched_ids", batcher, IdBatcher::batchedIds)
+                .description("Ids buscados por essas consultas; dividido por batches dá o tamanho médio do lote")
+                .register(registry);
+    }
+
+    /**
+     * Lê o parâmetro {@code ids}: números separados por vírgula, sem repetição
+     * e na ordem pedida.
+     */
+    public List<Long> parse(String ids) {
+        Set<Long> parsed = new LinkedHashSet<>();
+        for (String part : ids.split(",")) {
+            String value = part.trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            try {
+                parsed.add(Long.valueOf(value));
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("ids: '" + value + "' não é um id válido.");
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new BadRequestException("ids: informe ao menos um id.");
+        }
+        if (parsed.size() > maxIds) {
+            throw new BadRequestException("ids: no máximo " + maxIds + " por requisição.");
+        }
+        return new ArrayList<>(parsed);
+    }
+
+    /**
+     * GET por id pelo cache de entidades; numa falta, a busca entra no lote
+     * aberto do tipo. O lote roda fora do compute do cache: esperar a janela
+     * e a consulta com o lock da chave travaria as outras leituras dela.
+     */
+    public <T> T find(IdLookup<T> lookup, Long id) {
+        T cached = entityCache.getIfPresent(lookup.type, id);
+        if (cached != null) {
+            return cached;
+        }
+        long mark = entityCache.invalidations();
+        T entity = batcher.find(lookup, id);
+        if (entity != null) {
+            entityCache.putIfUnchanged(lookup.type, id, entity, mark);
+        }
+        return entity;
+    }
+
+    /**
+     * Multi-get na ordem dos ids pedidos. Ids inexistentes ficam de fora.
+     */
+    public <T> List<T> findAll(IdLookup<T> lookup, List<Long> ids) {
+        Map<Long, T> found = entityCache.present(lookup.type, ids);
+        if (found.size() < ids.size()) {
+            List<Long> missing = new ArrayList<>(ids.size() - found.size());
+            for (Long id : ids) {
+                if (!found.containsKey(id)) {
+                    missing.add(id);
+                }
+            }
+            // Não entram no cache: um carregamento em lote não é atômico com a
+            // invalidação pós-commit, e poderia guardar uma versão já substituída
+            for (T entity : lookup.find(missing)) {
+                found.put(lookup.idOf(entity), entity);
+            }
+        }
+        return inOrder(ids, found);
+    }
+
+    /**
+     * Reordena o resultado de um {@code id in (...)} pela ordem dos ids pedidos.
+     */
+    public static <T> List<T> inOrder(List<Long> ids, Collection<T> entities, Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>();
+        for (T entity : entities) {
+            byId.put(idOf.apply(entity), entity);
+        }
+        return inOrder(ids, byId);
+    }
+
+    private static <T> List<T> inOrder(List<Long> ids, Map<Long, T> byId) {
+        List<T> ordered = new ArrayList<>(byId.size());
+        for (Long id : ids) {
+            T entity = byId.get(id);
+            if (entity != null) {
+                ordered.add(entity);
+            }
+        }
+        return ordered;
+    }
+}
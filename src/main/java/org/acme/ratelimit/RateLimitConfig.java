@@ -0,0 +1,61 @@
+package org.acme.ratelimit;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@ConfigMapping(prefix = "rate-limit")
+public interface RateLimitConfig {
+
+    /**
+     * Tamanho do balde de cada cliente (rajada máxima, em tokens).
+     */
+    @WithDefault("120")
+    int capacity();
+
+    /**
+     * Tempo para um balde vazio encher de novo.
+     */
+    @WithDefault("PT1M")
+    Duration refillPeriod();
+
+    /**
+     * Custo padrão de GET/HEAD/OPTIONS.
+     */
+    @WithDefault("1")
+    int readCost();
+
+    /**
+     * Custo padrão de POST/PUT/DELETE.
+     */
+    @WithDefault("10")
+    int writeCost();
+
+    /**
+     * Custos por rota, pelo template do recurso (ex.: "/v1/jogos/bulk").
+     */
+    Map<String, Integer> routeCost();
+
+    /**
+     * Número máximo de clientes acompanhados ao mesmo tempo.
+     */
+    @WithDefault("100000")
+    long maxClients();
+
+    /**
+     * Header com a chave de API; quando presente, identifica o cliente no lugar do IP.
+     */
+    @WithDefault("X-Api-Key")
+    String apiKeyHeader();
+
+    /**
+     * Chaves de API conhecidas. Só elas ganham balde próprio: qualquer outro
+     * valor no header é ignorado e o cliente é identificado pelo IP, senão
+     * bastaria mandar uma chave nova a cada requisição para ter um balde cheio.
+     */
+    Optional<Set<String>> apiKeys();
+}
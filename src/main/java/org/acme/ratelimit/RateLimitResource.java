@@ -0,0 +1,37 @@
+package org.acme.ratelimit;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Path("/v1/rate-limit")
+@Produces("application/json")
+public class RateLimitResource {
+
+    @Inject
+    RateLimiter rateLimiter;
+
+    @GET
+    @Path("/stats")
+    @Operation(summary = "Contadores do rate limiter (requisições aceitas e rejeitadas, clientes acompanhados)")
+    public Map<String, Long> stats() {
+        return rateLimiter.stats();
+    }
+
+    @GET
+    @Path("/clients/{client}")
+    @Operation(summary = "Estado do balde de um cliente (ip:<endereço> ou key:<chave de API>)")
+    public Map<String, Object> client(@PathParam("client") String client) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("client", client);
+        body.put("limit", rateLimiter.capacity());
+        body.put("remaining", rateLimiter.available(client));
+        return body;
+    }
+}
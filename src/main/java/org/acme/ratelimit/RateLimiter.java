@@ -0,0 +1,119 @@
+package org.acme.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Um {@link TokenBucket} por cliente. Os baldes ficam em um cache limitado a
+ * {@code rate-limit.max-clients}; um balde parado por mais de um período de
+ * recarga já estaria cheio, então pode ser descartado sem perda.
+ */
+@ApplicationScoped
+public class RateLimiter implements MeterBinder {
+
+    private final RateLimitConfig config;
+    private final long intervalNanos;
+    private final Set<String> apiKeys;
+    private final Cache<String, TokenBucket> buckets;
+
+    private final LongAdder allowedReads = new LongAdder();
+    private final LongAdder allowedWrites = new LongAdder();
+    private final LongAdder rejectedReads = new LongAdder();
+    private final LongAdder rejectedWrites = new LongAdder();
+
+    @Inject
+    public RateLimiter(RateLimitConfig config) {
+        this.config = config;
+        this.intervalNanos = Math.max(1, config.refillPeriod().toNanos() / config.capacity());
+        this.apiKeys = config.apiKeys().orElse(Set.of());
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(config.maxClients())
+                .expireAfterAccess(config.refillPeriod())
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, buckets, "rate-limit-buckets");
+        decisions(registry, "allowed", "read", allowedReads);
+        decisions(registry, "allowed", "write", allowedWrites);
+        decisions(registry, "rejected", "read", rejectedReads);
+        decisions(registry, "rejected", "write", rejectedWrites);
+    }
+
+    private static void decisions(MeterRegistry registry, String decision, String kind, LongAdder adder) {
+        FunctionCounter.builder("catalog.rate_limit.decisions", adder, LongAdder::sum)
+                .tag("decision", decision)
+                .tag("kind", kind)
+                .register(registry);
+    }
+
+    /**
+     * Identificador do balde: a chave de API quando ela é uma das conhecidas,
+     * senão o endereço do cliente (já resolvido pelos proxies confiáveis).
+     */
+    public String clientKey(String apiKey, String address) {
+        if (apiKey != null && apiKeys.contains(apiKey)) {
+            return "key:" + apiKey;
+        }
+        return "ip:" + address;
+    }
+
+    public TokenBucket.Decision tryConsume(String client, int cost, boolean write) {
+        TokenBucket bucket = buckets.get(client, k -> new TokenBucket());
+        TokenBucket.Decision decision = bucket.tryConsume(cost, config.capacity(), intervalNanos, System.nanoTime());
+        if (decision.allowed) {
+            (write ? allowedWrites : allowedReads).increment();
+        } else {
+            (write ? rejectedWrites : rejectedReads).increment();
+        }
+        return decision;
+    }
+
+    public int cost(String method, String route) {
+        Integer routeCost = config.routeCost().get(route);
+        if (routeCost != null) {
+            return routeCost;
+        }
+        return isWrite(method) ? config.writeCost() : config.readCost();
+    }
+
+    public static boolean isWrite(String method) {
+        return !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method));
+    }
+
+    public int capacity() {
+        return config.capacity();
+    }
+
+    /**
+     * Tokens disponíveis para um cliente, ou a capacidade cheia se ele não
+     * estiver sendo acompanhado.
+     */
+    public long available(String client) {
+        TokenBucket bucket = buckets.getIfPresent(client);
+        return bucket == null ? config.capacity() : bucket.available(config.capacity(), intervalNanos, System.nanoTime());
+    }
+
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("trackedClients", buckets.estimatedSize());
+        stats.put("allowedReads", allowedReads.sum());
+        stats.put("allowedWrites", allowedWrites.sum());
+        stats.put("rejectedReads", rejectedReads.sum());
+        stats.put("rejectedWrites", rejectedWrites.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,60 @@
+package org.acme.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sem locks, no formato GCRA: todo o estado é o "tempo teórico
+ * de chegada" (TAT) em um único {@link AtomicLong}. Cada token consumido
+ * empurra o TAT um intervalo para frente; o pedido é negado se o TAT ficaria
+ * mais de {@code capacity} intervalos à frente do relógio.
+ */
+public class TokenBucket {
+
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    public static class Decision {
+        public final boolean allowed;
+        public final long remaining;
+        public final long retryAfterNanos;
+
+        Decision(boolean allowed, long remaining, long retryAfterNanos) {
+            this.allowed = allowed;
+            this.remaining = remaining;
+            this.retryAfterNanos = retryAfterNanos;
+        }
+    }
+
+    /**
+     * @param cost           tokens consumidos por esta requisição
+     * @param capacity       tamanho do balde (rajada máxima)
+     * @param intervalNanos  tempo para repor um token
+     */
+    public Decision tryConsume(int cost, int capacity, long intervalNanos, long nowNanos) {
+        long tolerance = capacity * intervalNanos;
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long base = tat == Long.MIN_VALUE ? nowNanos : Math.max(tat, nowNanos);
+            long newTat = base + cost * intervalNanos;
+            long ahead = newTat - nowNanos;
+            if (ahead > tolerance) {
+                return new Decision(false, remaining(base - nowNanos, tolerance, intervalNanos), ahead - tolerance);
+            }
+            if (theoreticalArrival.compareAndSet(tat, newTat)) {
+                return new Decision(true, remaining(ahead, tolerance, intervalNanos), 0);
+            }
+        }
+    }
+
+    /**
+     * Tokens disponíveis agora, sem consumir nada.
+     */
+    public long available(int capacity, long intervalNanos, long nowNanos) {
+        long tat = theoreticalArrival.get();
+        long ahead = tat == Long.MIN_VALUE ? 0 : Math.max(tat - nowNanos, 0);
+        return remaining(ahead, capacity * intervalNanos, intervalNanos);
+    }
+
+    private static long remaining(long ahead, long tolerance, long intervalNanos) {
+        return Math.max(0, (tolerance - ahead) / intervalNanos);
+    }
+}
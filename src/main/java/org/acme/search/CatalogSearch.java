@@ -0,0 +1,203 @@
+package org.acme.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.core.UriBuilder;
+import org.acme.etag.CatalogETags;
+import org.acme.search.SortKeys.SortKey;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementação única dos endpoints {@code /search}. O termo {@code q} é
+ * resolvido pelo {@link SearchIndex}, que também ordena e pagina os ids que
+ * casaram; o banco só recebe os ids da página, já sem {@code like '%q%'}.
+ */
+@ApplicationScoped
+public class CatalogSearch {
+
+    public static final String RELEVANCE = "relevance";
+
+    // Maior página aceita; tamanhos acima disso são reduzidos a ele
+    public static final int MAX_PAGE_SIZE = 100;
+
+    @Inject
+    SearchIndex index;
+
+    @Inject
+    SearchCountCache countCache;
+
+    @Inject
+    SearchResultCache resultCache;
+
+    @Inject
+    CatalogETags etags;
+
+    @Inject
+    MeterRegistry registry;
+
+    public <T> SearchPage<T> search(SearchTarget<T> target, SearchParams params) {
+        return search(target, params, SearchFilter.NONE);
+    }
+
+    public <T> SearchPage<T> search(SearchTarget<T> target, SearchParams params, SearchFilter filter) {
+        Sort.Direction dir = "desc".equalsIgnoreCase(params.direction) ? Sort.Direction.Descending : Sort.Direction.Ascending;
+        String termo = SearchCountCache.normalize(params.q);
+        int pageSize = Math.min(Math.max(params.size, 1), MAX_PAGE_SIZE);
+        boolean cursorMode = "cursor".equalsIgnoreCase(params.pagination);
+        boolean relevance = RELEVANCE.equalsIgnoreCase(params.sort);
+
+        if (relevance && cursorMode) {
+            throw new BadRequestException("A ordenação por relevância só suporta pagination=offset.");
+        }
+        // Sem termo não há relevância: mantém a ordem por id
+        SortKey sort = relevance ? target.sorts.resolve("id") : sortKey(target, params.sort);
+        // Contador de catalog_version (uma leitura pela chave primária, igual em todas
+        // as réplicas) + revisão do índice local
+        String generation = etags.version(target.type) + ":" + index.revision(target.type);
+        // Tupla normalizada: variações de caixa e espaços no q caem na mesma entrada
+        String matchKey = termo.isEmpty() ? null : target.type.getSimpleName() + ':' + generation + '|' + termo + '|' + filter.key();
+
+        if (!resultCache.enabled()) {
+            return execute(target, params, filter, termo, matchKey, sort, dir, pageSize, cursorMode, relevance, generation);
+        }
+        String key = target.type.getSimpleName() + ':' + generation + '|' + termo + '|' + filter.key()
+                + '|' + (relevance ? RELEVANCE : sort.field) + '|' + dir + '|' + pageSize
+                + '|' + (cursorMode ? "cursor:" + params.cursor : "page:" + Math.max(params.page, 0))
+                + '|' + params.total;
+        return resultCache.get(key, matchKey, target,
+                () -> execute(target, params, filter, termo, matchKey, sort, dir, pageSize, cursorMode, relevance, generation));
+    }
+
+    private <T> SearchPage<T> execute(SearchTarget<T> target, SearchParams params, SearchFilter filter, String termo,
+                                      String matchKey, SortKey sort, Sort.Direction dir, int pageSize,
+                                      boolean cursorMode, boolean relevance, String generation) {
+        // null = sem termo, a pesquisa cobre a tabela inteira. Os ids que casaram
+        // ficam em cache uma vez por termo e filtro, para todas as páginas
+        List<Long> hits = termo.isEmpty() ? null : resultCache.matches(matchKey, () -> {
+            List<Long> found = index.search(target.type, termo);
+            return filter.isEmpty() ? found : matching(found, filter);
+        });
+        if (hits != null && hits.isEmpty()) {
+            return new SearchPage<>(List.of(), params.total ? 0 : -1, pageSize, false, "", hits);
+        }
+        if (relevance && hits != null) {
+            return byRelevance(target, params, filter, termo, dir, hits, pageSize);
+        }
+        if (hits != null) {
+            return sortedHits(target, params, filter, termo, sort, dir, pageSize, cursorMode, hits);
+        }
+
+        String filtro = filter.where;
+        Parameters filtroParams = filter.parameters();
+        long total = !params.total ? -1
+                : countCache.count(target.type, generation + ":" + termo + filter.key(), () -> target.counter.count(filtro, filtroParams));
+
+        if (cursorMode) {
+            KeysetCursor after = KeysetCursor.decode(params.cursor, target.type, sort.field, dir);
+            KeysetPage<T> pagina = KeysetPage.fetch(target.finder, filtro, filtroParams, after, sort, dir, pageSize);
+            String next = pagina.hasMore
+                    ? searchUri(target, termo, sort.field, params, filter, dir, pageSize)
+                            .queryParam("pagination", "cursor")
+                            .queryParam("cursor", pagina.nextCursor)
+                            .build().toString()
+                    : "";
+            return new SearchPage<>(pagina.items, total, pageSize, pagina.hasMore, next, null);
+        }
+
+        int pageIndex = Math.max(params.page, 0);
+        // Em long: page * size estoura int bem antes de page chegar ao máximo
+        long from = (long) pageIndex * pageSize;
+        if (from + pageSize >= Integer.MAX_VALUE) {
+            // Além de qualquer tabela que o range do Panache (int) consiga endereçar
+            return new SearchPage<>(List.of(), total, pageSize, false, "", null);
+        }
+        // Busca size + 1 linhas: a linha extra só indica se existe próxima página
+        List<T> rows = target.finder.find(filtro, sort.sort(dir), filtroParams)
+                .range((int) from, (int) from + pageSize)
+                .list();
+        boolean hasMore = rows.size() > pageSize;
+        String next = hasMore ? searchUri(target, termo, relevance ? RELEVANCE : sort.field, params, filter, dir, pageSize).queryParam("page", pageIndex + 1).build().toString() : "";
+        return new SearchPage<>(hasMore ? rows.subList(0, pageSize) : rows, total, pageSize, hasMore, next, null);
+    }
+
+    // A ordem vem do índice; o banco só carrega os ids da página
+    private <T> SearchPage<T> byRelevance(SearchTarget<T> target, SearchParams params, SearchFilter filter, String termo,
+                                          Sort.Direction dir, List<Long> hits, int pageSize) {
+        int pageIndex = Math.max(params.page, 0);
+        int from = (int) Math.min((long) pageIndex * pageSize, hits.size());
+        int to = Math.min(from + pageSize, hits.size());
+        boolean hasMore = to < hits.size();
+
+        List<T> items = target.findByIds(hits.subList(from, to));
+        String next = hasMore ? searchUri(target, termo, RELEVANCE, params, filter, dir, pageSize).queryParam("page", pageIndex + 1).build().toString() : "";
+        return new SearchPage<>(items, params.total ? hits.size() : -1, pageSize, hasMore, next, hits);
+    }
+
+    // Ordena e pagina os ids no índice; o IN recebe no máximo uma página, seja qual for o número de hits
+    private <T> SearchPage<T> sortedHits(SearchTarget<T> target, SearchParams params, SearchFilter filter, String termo,
+                                         SortKey sort, Sort.Direction dir, int pageSize, boolean cursorMode,
+                                         List<Long> hits) {
+        boolean descending = dir == Sort.Direction.Descending;
+        KeysetCursor after = cursorMode ? KeysetCursor.decode(params.cursor, target.type, sort.field, dir) : null;
+        List<Long> ordered = index.sort(target.type, hits, sort.field, descending, after);
+
+        int pageIndex = cursorMode ? 0 : Math.max(params.page, 0);
+        int from = (int) Math.min((long) pageIndex * pageSize, ordered.size());
+        int to = Math.min(from + pageSize, ordered.size());
+        boolean hasMore = to < ordered.size();
+        List<T> items = target.findByIds(ordered.subList(from, to));
+
+        String next = "";
+        if (hasMore && cursorMode) {
+            Long last = ordered.get(to - 1);
+            next = searchUri(target, termo, sort.field, params, filter, dir, pageSize)
+                    .queryParam("pagination", "cursor")
+                    .queryParam("cursor", KeysetCursor.of(sort.field, dir, index.sortValue(target.type, last, sort.field), last).encode())
+                    .build().toString();
+        } else if (hasMore) {
+            next = searchUri(target, termo, sort.field, params, filter, dir, pageSize).queryParam("page", pageIndex + 1).build().toString();
+        }
+        return new SearchPage<>(items, params.total ? hits.size() : -1, pageSize, hasMore, next, hits);
+    }
+
+    private SortKey sortKey(SearchTarget<?> target, String requested) {
+        try {
+            return target.sorts.resolve(requested);
+        } catch (BadRequestException e) {
+            registry.counter("catalog.search.sort.rejected", "entity", target.type.getSimpleName()).increment();
+            throw e;
+        }
+    }
+
+    private static List<Long> matching(List<Long> hits, SearchFilter filter) {
+        List<Long> matching = new ArrayList<>(hits.size());
+        for (Long id : hits) {
+            if (filter.matches.test(id)) {
+                matching.add(id);
+            }
+        }
+        return matching;
+    }
+
+    private static UriBuilder searchUri(SearchTarget<?> target, String termo, String sort, SearchParams params,
+                                        SearchFilter filter, Sort.Direction dir, int pageSize) {
+        UriBuilder uri = UriBuilder.fromPath(target.path);
+        if (!termo.isEmpty()) {
+            uri.queryParam("q", termo);
+        }
+        filter.values.forEach((name, value) -> uri.queryParam(name, value));
+        uri.queryParam("sort", sort)
+                .queryParam("direction", dir == Sort.Direction.Descending ? "desc" : "asc")
+                .queryParam("size", pageSize);
+        if (!params.total) {
+            uri.queryParam("total", false);
+        }
+        return uri;
+    }
+}
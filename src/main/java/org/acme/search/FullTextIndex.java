@@ -0,0 +1,255 @@
+package org.acme.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido em memória. Cada termo aponta para os documentos (ids) que
+ * o contêm, com um peso que depende do campo de origem. Os termos ficam
+ * ordenados para que a busca por prefixo seja uma faixa do mapa.
+ * <p>
+ * Cada documento guarda também os valores dos campos de ordenação, para que
+ * os resultados sejam ordenados e paginados aqui e o banco receba só os ids
+ * de uma página.
+ */
+public class FullTextIndex {
+
+    // Termo que só casa por prefixo vale menos que o termo exato
+    private static final float PREFIX_FACTOR = 0.5f;
+
+    private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Map<String, Float>> documents = new HashMap<>();
+    private final Map<Long, Map<String, Object>> values = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Muda a cada alteração; serve de geração para o que for calculado a partir do índice
+    private volatile long revision;
+
+    /**
+     * Termos ponderados de um documento, montados campo a campo.
+     */
+    public static class Document {
+        final Map<String, Float> terms = new HashMap<>();
+        final Map<String, Object> values = new HashMap<>();
+
+        public Document field(String text, float weight) {
+            for (String token : TextAnalyzer.tokens(text)) {
+                terms.merge(token, weight, Float::sum);
+            }
+            return this;
+        }
+
+        /**
+         * Valor de um campo de ordenação; não é indexado como texto.
+         */
+        public Document sortValue(String field, Comparable<?> value) {
+            values.put(field, value);
+            return this;
+        }
+    }
+
+    public static class Hit {
+        public final long id;
+        public final float score;
+
+        public Hit(long id, float score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+
+    public void put(long id, Document document) {
+        lock.writeLock().lock();
+        try {
+            revision++;
+            removeUnlocked(id);
+            documents.put(id, document.terms);
+            values.put(id, document.values);
+            document.terms.forEach((term, weight) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            revision++;
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            revision++;
+            postings.clear();
+            documents.clear();
+            values.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Substitui todo o conteúdo sob um único lock de escrita.
+     */
+    public void replace(Map<Long, Document> replacement) {
+        lock.writeLock().lock();
+        try {
+            revision++;
+            postings.clear();
+            documents.clear();
+            values.clear();
+            replacement.forEach((id, document) -> {
+                documents.put(id, document.terms);
+                values.put(id, document.values);
+                document.terms.forEach((term, weight) ->
+                        postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, weight));
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna os documentos que contêm todos os tokens da consulta (cada token
+     * casa como prefixo), do mais relevante para o menos relevante.
+     */
+    public List<Hit> search(String query) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.tokens(query)));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = null;
+            for (String token : tokens) {
+                Map<Long, Float> tokenScores = scoreToken(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> hits.add(new Hit(id, score)));
+            hits.sort(Comparator.comparingDouble((Hit h) -> h.score).reversed().thenComparingLong(h -> h.id));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ordena os ids pelo valor guardado do campo, na mesma ordem do banco em
+     * {@link KeysetCursor#sortOf}: nulos no fim e id como desempate. Com
+     * {@code after}, devolve só os ids que vêm depois do cursor.
+     */
+    public List<Long> sort(List<Long> ids, String field, boolean descending, KeysetCursor after) {
+        lock.readLock().lock();
+        try {
+            List<Long> sorted = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                if (after == null || compare(value(id, field), id, after.lastValue, after.lastId, descending) > 0) {
+                    sorted.add(id);
+                }
+            }
+            sorted.sort((a, b) -> compare(value(a, field), a, value(b, field), b, descending));
+            return sorted;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Valor guardado de um campo de ordenação; {@code id} é o próprio id.
+     */
+    public Object sortValue(long id, String field) {
+        lock.readLock().lock();
+        try {
+            return value(id, field);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long revision() {
+        return revision;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Object value(long id, String field) {
+        if ("id".equals(field)) {
+            return id;
+        }
+        Map<String, Object> fields = values.get(id);
+        return fields == null ? null : fields.get(field);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Object value, long id, Object otherValue, long otherId, boolean descending) {
+        int cmp;
+        if (value == null || otherValue == null) {
+            // Nulos no fim nas duas direções, como o NULLS LAST da consulta
+            cmp = value == otherValue ? 0 : value == null ? 1 : -1;
+        } else {
+            cmp = ((Comparable<Object>) value).compareTo(otherValue);
+            cmp = descending ? -cmp : cmp;
+        }
+        if (cmp != 0) {
+            return cmp;
+        }
+        return descending ? Long.compare(otherId, id) : Long.compare(id, otherId);
+    }
+
+    // Melhor termo de cada documento que começa com o token
+    private Map<Long, Float> scoreToken(String token) {
+        Map<Long, Float> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Float>> entry : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            float factor = entry.getKey().length() == token.length() ? 1f : PREFIX_FACTOR;
+            entry.getValue().forEach((id, weight) -> scores.merge(id, weight * factor, Math::max));
+        }
+        return scores;
+    }
+
+    private void removeUnlocked(long id) {
+        values.remove(id);
+        Map<String, Float> terms = documents.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<Long, Float> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(id);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
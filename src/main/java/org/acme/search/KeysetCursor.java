@@ -0,0 +1,153 @@
+package org.acme.search;
+
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
+import jakarta.ws.rs.BadRequestException;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Cursor opaco da paginação por keyset: guarda a chave de ordenação e o id
+ * da última linha entregue, para que a próxima página busque a partir dela
+ * ("seek") em vez de pular linhas com OFFSET.
+ */
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+    private static final String NULL_VALUE = "~";
+    private static final String VALUE_PREFIX = "=";
+
+    public final String sort;
+    public final Sort.Direction direction;
+    public final Object lastValue;
+    public final long lastId;
+
+    private KeysetCursor(String sort, Sort.Direction direction, Object lastValue, long lastId) {
+        this.sort = sort;
+        this.direction = direction;
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+    }
+
+    /**
+     * Cria o cursor que aponta para depois da entidade informada.
+     */
+    public static KeysetCursor after(Object entity, String sort, Sort.Direction direction) {
+        Class<?> type = entity.getClass();
+        Long id = (Long) read(field(type, "id"), entity);
+        Object value = isId(sort) ? id : read(field(type, sort), entity);
+        return new KeysetCursor(sort, direction, value, id);
+    }
+
+    /**
+     * Cursor a partir de valores já conhecidos (ids ordenados pelo índice textual).
+     */
+    static KeysetCursor of(String sort, Sort.Direction direction, Object lastValue, long lastId) {
+        return new KeysetCursor(sort, direction, lastValue, lastId);
+    }
+
+    /**
+     * Decodifica o token recebido do cliente. Retorna {@code null} quando não
+     * há token (primeira página). O token precisa ter sido gerado com a mesma
+     * ordenação da requisição atual.
+     */
+    public static KeysetCursor decode(String token, Class<?> entityType, String sort, Sort.Direction direction) {
+        Class<?> valueType = isId(sort) ? Long.class : field(entityType, sort).getType();
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cursor inválido.");
+        }
+
+        // sort|direção|id|valor -> o valor fica por último porque pode conter o separador
+        String[] parts = raw.split("\\" + SEPARATOR, 4);
+        if (parts.length != 4 || !parts[0].equals(sort) || !parts[1].equals(direction.name())) {
+            throw new BadRequestException("O cursor não corresponde à ordenação solicitada.");
+        }
+
+        try {
+            long id = Long.parseLong(parts[2]);
+            Object value = parts[3].equals(NULL_VALUE) ? null : parse(parts[3].substring(VALUE_PREFIX.length()), valueType);
+            return new KeysetCursor(sort, direction, value, id);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Cursor inválido.");
+        }
+    }
+
+    public String encode() {
+        String value = lastValue == null ? NULL_VALUE : VALUE_PREFIX + lastValue;
+        String raw = sort + SEPARATOR + direction.name() + SEPARATOR + lastId + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Predicado HQL que avança além do cursor. Os nulos ficam sempre no fim
+     * (ver {@link #sortOf(String, Sort.Direction)}), então uma chave nula só
+     * é seguida por outras chaves nulas com id maior/menor.
+     */
+    public String predicate() {
+        String cmp = direction == Sort.Direction.Descending ? "<" : ">";
+        if (isId(sort)) {
+            return "id " + cmp + " :keysetId";
+        }
+        if (lastValue == null) {
+            return "(" + sort + " is null and id " + cmp + " :keysetId)";
+        }
+        return "(" + sort + " " + cmp + " :keysetValue"
+                + " or (" + sort + " = :keysetValue and id " + cmp + " :keysetId)"
+                + " or " + sort + " is null)";
+    }
+
+    public Parameters bind(Parameters params) {
+        params.and("keysetId", lastId);
+        if (!isId(sort) && lastValue != null) {
+            params.and("keysetValue", lastValue);
+        }
+        return params;
+    }
+
+    /**
+     * Ordenação estável usada no modo cursor: chave pedida + id como desempate.
+     */
+    public static Sort sortOf(String sort, Sort.Direction direction) {
+        if (isId(sort)) {
+            return Sort.by("id", direction);
+        }
+        return Sort.by(sort, direction, Sort.NullPrecedence.NULLS_LAST).and("id", direction);
+    }
+
+    private static boolean isId(String sort) {
+        return "id".equals(sort);
+    }
+
+    private static Field field(Class<?> type, String name) {
+        try {
+            return type.getField(name);
+        } catch (NoSuchFieldException e) {
+            throw new BadRequestException("Campo de ordenação inválido: " + name);
+        }
+    }
+
+    private static Object read(Field field, Object entity) {
+        try {
+            return field.get(entity);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object parse(String value, Class<?> type) {
+        if (type == Long.class || type == long.class) return Long.valueOf(value);
+        if (type == Integer.class || type == int.class) return Integer.valueOf(value);
+        if (type == LocalDate.class) return LocalDate.parse(value);
+        return value;
+    }
+}
@@ -0,0 +1,54 @@
+package org.acme.search;
+
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uma página obtida por keyset. Busca {@code size + 1} linhas para saber se
+ * existe próxima página sem precisar de outra consulta.
+ */
+public final class KeysetPage<T> {
+
+    @FunctionalInterface
+    public interface Finder<T> {
+        PanacheQuery<T> find(String query, Sort sort, Parameters params);
+    }
+
+    public final List<T> items;
+    public final boolean hasMore;
+    public final String nextCursor;
+
+    private KeysetPage(List<T> items, boolean hasMore, String nextCursor) {
+        this.items = items;
+        this.hasMore = hasMore;
+        this.nextCursor = nextCursor;
+    }
+
+    public static <T> KeysetPage<T> fetch(Finder<T> finder, String filter, Parameters filterParams,
+                                          KeysetCursor after, SortKeys.SortKey sort, Sort.Direction direction, int size) {
+        Parameters params = new Parameters();
+        for (Map.Entry<String, Object> e : filterParams.map().entrySet()) {
+            params.and(e.getKey(), e.getValue());
+        }
+
+        String query = filter == null || filter.isBlank() ? "" : "(" + filter + ")";
+        if (after != null) {
+            query = query.isEmpty() ? after.predicate() : query + " and " + after.predicate();
+            after.bind(params);
+        }
+
+        int pageSize = Math.max(size, 1);
+        List<T> rows = finder.find(query, sort.sort(direction), params)
+                .range(0, pageSize)
+                .list();
+
+        boolean hasMore = rows.size() > pageSize;
+        List<T> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String next = hasMore ? KeysetCursor.after(items.get(items.size() - 1), sort.field, direction).encode() : null;
+        return new KeysetPage<>(items, hasMore, next);
+    }
+}
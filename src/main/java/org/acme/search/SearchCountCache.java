@@ -0,0 +1,44 @@
+package org.acme.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache de curta duração para os totais das pesquisas. O COUNT percorre a
+ * tabela inteira, então a mesma pesquisa repetida em poucos segundos
+ * reaproveita o último total.
+ */
+@ApplicationScoped
+public class SearchCountCache {
+
+    private final Cache<String, Long> counts;
+
+    @Inject
+    public SearchCountCache(
+            @ConfigProperty(name = "search.count-cache.expire-after-write", defaultValue = "PT10S") Duration ttl,
+            @ConfigProperty(name = "search.count-cache.maximum-size", defaultValue = "1000") long maximumSize) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Normaliza o termo de busca: sem espaços nas pontas e em minúsculas.
+     * Retorna vazio quando não há termo.
+     */
+    public static String normalize(String q) {
+        return q == null ? "" : q.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public long count(Class<?> entity, String termo, LongSupplier counter) {
+        return counts.get(entity.getSimpleName() + ":" + termo, k -> counter.getAsLong());
+    }
+}
@@ -0,0 +1,43 @@
+package org.acme.search;
+
+import io.quarkus.panache.common.Parameters;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongPredicate;
+
+/**
+ * Filtro adicional de uma pesquisa, em duas formas equivalentes: o predicado
+ * HQL, usado quando não há termo, e um teste por id, aplicado aos ids que já
+ * vieram do índice textual.
+ */
+public class SearchFilter {
+
+    public static final SearchFilter NONE = new SearchFilter("", Map.of(), id -> true);
+
+    final String where;
+    // Parâmetros do predicado; também repetidos no NextPage
+    final Map<String, Object> values;
+    final LongPredicate matches;
+
+    public SearchFilter(String where, Map<String, Object> values, LongPredicate matches) {
+        this.where = where;
+        this.values = new LinkedHashMap<>(values);
+        this.matches = matches;
+    }
+
+    boolean isEmpty() {
+        return where.isEmpty();
+    }
+
+    Parameters parameters() {
+        Parameters params = new Parameters();
+        values.forEach(params::and);
+        return params;
+    }
+
+    // Parte da chave do cache de totais
+    String key() {
+        return values.toString();
+    }
+}
@@ -0,0 +1,159 @@
+package org.acme.search;
+
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.transaction.Transactional;
+import org.acme.Desenvolvedora;
+import org.acme.Genero;
+import org.acme.Jogo;
+import org.acme.events.CatalogChange;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Mantém um {@link FullTextIndex} por entidade. É carregado na subida da
+ * aplicação e atualizado incrementalmente pelos eventos de escrita, sempre
+ * depois do commit.
+ * <p>
+ * O índice é local a cada instância: só vê os eventos das escritas feitas
+ * nela. Com várias réplicas, uma escrita feita em outra só aparece na busca
+ * por termo desta depois de um {@link #rebuild()} (agendado por
+ * {@code search.index.rebuild-interval}); até lá a réplica pode devolver ou
+ * deixar de devolver ids recentes. Os dados de cada item sempre vêm do banco.
+ * As escritas que chegam enquanto o rebuild lê o banco são reaplicadas depois
+ * da troca, para que a leitura mais velha não apague uma escrita mais nova.
+ */
+@ApplicationScoped
+public class SearchIndex {
+
+    private static final float PRIMARY = 2f;
+    private static final float SECONDARY = 1f;
+
+    private final Map<Class<?>, FullTextIndex> indexes = Map.of(
+            Jogo.class, new FullTextIndex(),
+            Genero.class, new FullTextIndex(),
+            Desenvolvedora.class, new FullTextIndex());
+
+    // Protege pending e serializa a troca com as escritas
+    private final Object changes = new Object();
+    // Escritas recebidas durante um rebuild; null fora dele
+    private List<CatalogChange> pending;
+
+    @Transactional
+    void onStart(@Observes StartupEvent event) {
+        rebuild();
+    }
+
+    void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) CatalogChange change) {
+        synchronized (changes) {
+            apply(change);
+            if (pending != null) {
+                pending.add(change);
+            }
+        }
+    }
+
+    @Transactional
+    public synchronized void rebuild() {
+        synchronized (changes) {
+            pending = new ArrayList<>();
+        }
+        try {
+            Map<Long, FullTextIndex.Document> jogos = documents(Jogo.<Jogo>listAll(), j -> j.id);
+            Map<Long, FullTextIndex.Document> generos = documents(Genero.<Genero>listAll(), g -> g.id);
+            Map<Long, FullTextIndex.Document> desenvolvedoras = documents(Desenvolvedora.<Desenvolvedora>listAll(), d -> d.id);
+            synchronized (changes) {
+                // Cada índice troca o conteúdo de uma vez: a busca nunca vê o índice pela metade
+                indexes.get(Jogo.class).replace(jogos);
+                indexes.get(Genero.class).replace(generos);
+                indexes.get(Desenvolvedora.class).replace(desenvolvedoras);
+                // Reaplicar é seguro mesmo para uma escrita que a leitura já viu: cada uma grava o estado final
+                pending.forEach(this::apply);
+            }
+        } finally {
+            synchronized (changes) {
+                pending = null;
+            }
+        }
+    }
+
+    @Scheduled(every = "${search.index.rebuild-interval:off}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Ids que casam com o termo, em ordem de relevância.
+     */
+    public List<Long> search(Class<?> type, String termo) {
+        List<FullTextIndex.Hit> hits = indexes.get(type).search(termo);
+        List<Long> ids = new ArrayList<>(hits.size());
+        for (FullTextIndex.Hit hit : hits) {
+            ids.add(hit.id);
+        }
+        return ids;
+    }
+
+    /**
+     * Ids na ordem do campo pedido (ver {@link FullTextIndex#sort}).
+     */
+    public List<Long> sort(Class<?> type, List<Long> ids, String field, boolean descending, KeysetCursor after) {
+        return indexes.get(type).sort(ids, field, descending, after);
+    }
+
+    /**
+     * Revisão do índice da entidade nesta instância; muda a cada escrita
+     * aplicada e a cada reconstrução.
+     */
+    public long revision(Class<?> type) {
+        return indexes.get(type).revision();
+    }
+
+    public Object sortValue(Class<?> type, long id, String field) {
+        return indexes.get(type).sortValue(id, field);
+    }
+
+    private void apply(CatalogChange change) {
+        FullTextIndex index = indexes.get(change.type);
+        if (index == null) {
+            return;
+        }
+        if (change.operation == CatalogChange.Operation.DELETED) {
+            index.remove(change.id);
+        } else {
+            index.put(change.id, document(change.entity));
+        }
+    }
+
+    private static <T> Map<Long, FullTextIndex.Document> documents(List<T> entities, Function<T, Long> id) {
+        Map<Long, FullTextIndex.Document> documents = new HashMap<>();
+        for (T entity : entities) {
+            documents.put(id.apply(entity), document(entity));
+        }
+        return documents;
+    }
+
+    // Campos indexados de cada entidade; o campo principal pesa mais
+    private static FullTextIndex.Document document(Object entity) {
+        if (entity instanceof Jogo jogo) {
+            return new FullTextIndex.Document().field(jogo.titulo, PRIMARY).field(jogo.descricao, SECONDARY)
+                    .sortValue("titulo", jogo.titulo).sortValue("anoLancamento", jogo.anoLancamento);
+        }
+        if (entity instanceof Genero genero) {
+            return new FullTextIndex.Document().field(genero.nome, PRIMARY).field(genero.descricao, SECONDARY)
+                    .sortValue("nome", genero.nome);
+        }
+        if (entity instanceof Desenvolvedora desenvolvedora) {
+            return new FullTextIndex.Document().field(desenvolvedora.nome, PRIMARY).field(desenvolvedora.paisDeOrigem, SECONDARY)
+                    .sortValue("nome", desenvolvedora.nome).sortValue("paisDeOrigem", desenvolvedora.paisDeOrigem);
+        }
+        throw new IllegalArgumentException("Entidade não indexada: " + entity.getClass().getName());
+    }
+}
@@ -0,0 +1,34 @@
+package org.acme.search;
+
+import java.util.List;
+
+/**
+ * Resultado de uma pesquisa, independente da entidade. Cada recurso copia os
+ * campos para o seu {@code Search*Response}.
+ */
+public class SearchPage<T> {
+
+    public final List<T> items;
+    // -1 quando o total não foi calculado
+    public final long total;
+    public final int totalPages;
+    public final int pageSize;
+    public final boolean hasMore;
+    public final String nextPage;
+    // Ids que casaram com o termo q (já filtrados), ou null quando não há termo
+    public final List<Long> matchedIds;
+
+    public SearchPage(List<T> items, long total, int pageSize, boolean hasMore, String nextPage) {
+        this(items, total, pageSize, hasMore, nextPage, null);
+    }
+
+    public SearchPage(List<T> items, long total, int pageSize, boolean hasMore, String nextPage, List<Long> matchedIds) {
+        this.items = items;
+        this.total = total;
+        this.totalPages = total < 0 ? -1 : (int) ((total + pageSize - 1) / pageSize);
+        this.pageSize = pageSize;
+        this.hasMore = hasMore;
+        this.nextPage = nextPage;
+        this.matchedIds = matchedIds;
+    }
+}
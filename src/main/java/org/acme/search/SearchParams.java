@@ -0,0 +1,47 @@
+package org.acme.search;
+
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.QueryParam;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+
+/**
+ * Parâmetros de consulta comuns aos endpoints {@code /search}.
+ */
+public class SearchParams {
+
+    @QueryParam("q")
+    public String q;
+
+    @Parameter(description = "Campo de ordenação: id ou um campo indexado (jogos: titulo, anoLancamento; gêneros: nome; "
+            + "desenvolvedoras: nome, paisDeOrigem), ou relevance para ordenar pela relevância do termo q. Outros valores: 400")
+    @QueryParam("sort")
+    @DefaultValue("id")
+    public String sort;
+
+    @QueryParam("direction")
+    @DefaultValue("asc")
+    public String direction;
+
+    @QueryParam("page")
+    @DefaultValue("0")
+    public int page;
+
+    @Parameter(description = "Itens por página (máximo " + CatalogSearch.MAX_PAGE_SIZE + ")")
+    @QueryParam("size")
+    @DefaultValue("4")
+    public int size;
+
+    @Parameter(description = "offset (padrão) ou cursor")
+    @QueryParam("pagination")
+    @DefaultValue("offset")
+    public String pagination;
+
+    @Parameter(description = "Token opaco do NextPage no modo pagination=cursor")
+    @QueryParam("cursor")
+    public String cursor;
+
+    @Parameter(description = "Quando false, não calcula o total (Total* e TotalPages retornam -1)")
+    @QueryParam("total")
+    @DefaultValue("true")
+    public boolean total;
+}
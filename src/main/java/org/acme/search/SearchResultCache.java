@@ -0,0 +1,216 @@
+package org.acme.search;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.cache.EntityCache;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Cache das pesquisas, em dois níveis: os ids que casaram com um termo e
+ * filtro ficam uma vez só ({@link #matches}), compartilhados por todas as
+ * páginas e ordenações; cada página guarda só os próprios ids e a chave
+ * desses ids. As entidades vêm do {@link EntityCache} na hora de responder,
+ * e o que faltar dele vem em um único {@code IN}.
+ * <p>
+ * As chaves incluem a geração da entidade: o contador da tabela em
+ * {@code catalog_version} ({@code CatalogETags.version}, incrementado na
+ * transação de cada escrita e lido pela chave primária, igual em todas as
+ * réplicas) e a revisão do índice textual local. Uma escrita não apaga nada, só faz as
+ * pesquisas seguintes usarem chaves novas, e as antigas saem por peso ou
+ * idade. Pesquisas iguais que chegam juntas numa falta executam uma vez só;
+ * as demais esperam o resultado de quem chegou primeiro.
+ */
+@ApplicationScoped
+public class SearchResultCache implements MeterBinder {
+
+    private final EntityCache entityCache;
+    private final boolean enabled;
+    private final AsyncCache<String, Entry> pages;
+    private final Cache<String, List<Long>> matches;
+
+    @Inject
+    public SearchResultCache(
+            EntityCache entityCache,
+            @ConfigProperty(name = "search.result-cache.enabled", defaultValue = "true") boolean enabled,
+            @ConfigProperty(name = "search.result-cache.maximum-weight", defaultValue = "16777216") long maximumWeight,
+            @ConfigProperty(name = "search.result-cache.matches.maximum-weight", defaultValue = "16777216") long matchesMaximumWeight,
+            @ConfigProperty(name = "search.result-cache.expire-after-write", defaultValue = "PT5M") Duration ttl) {
+        this.entityCache = entityCache;
+        this.enabled = enabled;
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((String key, Entry entry) -> entry.weight(key))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        this.matches = Caffeine.newBuilder()
+                .maximumWeight(matchesMaximumWeight)
+                .weigher((String key, List<Long> ids) -> weight(key, ids.size()))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, pages.synchronous(), "search-results");
+        CaffeineCacheMetrics.monitor(registry, matches, "search-matches");
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Ids que casaram com o termo e o filtro da {@code key}, calculados uma vez
+     * por geração. A lista devolvida é imutável.
+     */
+    public List<Long> matches(String key, Supplier<List<Long>> search) {
+        if (!enabled) {
+            return List.copyOf(search.get());
+        }
+        // Só o índice em memória roda dentro do compute, sem acesso ao banco
+        return matches.get(key, k -> List.copyOf(search.get()));
+    }
+
+    /**
+     * Retorna a página em cache ou executa a pesquisa. Quem executa recebe a
+     * própria página, sem hidratar de novo. {@code matchKey} é a chave dos ids
+     * que casaram (null sem termo).
+     */
+    public <T> SearchPage<T> get(String key, String matchKey, SearchTarget<T> target, Supplier<SearchPage<T>> search) {
+        CompletableFuture<Entry> cached = pages.getIfPresent(key);
+        if (cached == null) {
+            CompletableFuture<Entry> mine = new CompletableFuture<>();
+            cached = pages.asMap().putIfAbsent(key, mine);
+            if (cached == null) {
+                try {
+                    SearchPage<T> page = search.get();
+                    mine.complete(Entry.of(page, target, matchKey));
+                    return page;
+                } catch (RuntimeException e) {
+                    // O Caffeine descarta a entrada que falhou; quem estava esperando recebe o mesmo erro
+                    mine.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        Entry entry = join(cached);
+        List<Long> matchedIds = null;
+        if (entry.matchKey != null) {
+            matchedIds = matches.getIfPresent(entry.matchKey);
+            if (matchedIds == null) {
+                // Os ids que casaram saíram do cache antes da página: a pesquisa recalcula e guarda de novo
+                return search.get();
+            }
+        }
+        return hydrate(entry, matchedIds, target);
+    }
+
+    public CacheStats stats() {
+        return pages.synchronous().stats();
+    }
+
+    public long size() {
+        return pages.synchronous().estimatedSize();
+    }
+
+    public CacheStats matchesStats() {
+        return matches.stats();
+    }
+
+    public long matchesSize() {
+        return matches.estimatedSize();
+    }
+
+    private <T> SearchPage<T> hydrate(Entry entry, List<Long> matchedIds, SearchTarget<T> target) {
+        Map<Long, T> found = entityCache.present(target.type, entry.ids);
+        if (found.size() < entry.ids.size()) {
+            List<Long> missing = new ArrayList<>(entry.ids.size() - found.size());
+            for (Long id : entry.ids) {
+                if (!found.containsKey(id)) {
+                    missing.add(id);
+                }
+            }
+            for (T entity : target.findByIds(missing)) {
+                found.put(target.id.apply(entity), entity);
+            }
+        }
+        List<T> items = new ArrayList<>(entry.ids.size());
+        for (Long id : entry.ids) {
+            T entity = found.get(id);
+            if (entity != null) {
+                items.add(entity);
+            }
+        }
+        return new SearchPage<>(items, entry.total, entry.pageSize, entry.hasMore, entry.nextPage, matchedIds);
+    }
+
+    private static Entry join(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Custo fixo aproximado de uma entrada e de cada id guardado, em bytes
+    private static final int OVERHEAD_BYTES = 128;
+    private static final int ID_BYTES = 24;
+
+    private static int weight(String key, int ids) {
+        long bytes = OVERHEAD_BYTES + (long) key.length() * 2 + (long) ids * ID_BYTES;
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    static final class Entry {
+
+        final List<Long> ids;
+        final long total;
+        final int pageSize;
+        final boolean hasMore;
+        final String nextPage;
+        // Chave dos ids que casaram em matches; null sem termo
+        final String matchKey;
+
+        private Entry(List<Long> ids, long total, int pageSize, boolean hasMore, String nextPage, String matchKey) {
+            this.ids = ids;
+            this.total = total;
+            this.pageSize = pageSize;
+            this.hasMore = hasMore;
+            this.nextPage = nextPage;
+            this.matchKey = matchKey;
+        }
+
+        static <T> Entry of(SearchPage<T> page, SearchTarget<T> target, String matchKey) {
+            List<Long> ids = new ArrayList<>(page.items.size());
+            for (T item : page.items) {
+                ids.add(target.id.apply(item));
+            }
+            return new Entry(List.copyOf(ids), page.total, page.pageSize, page.hasMore, page.nextPage,
+                    page.matchedIds == null ? null : matchKey);
+        }
+
+        int weight(String key) {
+            return SearchResultCache.weight(key + nextPage + (matchKey == null ? "" : matchKey), ids.size());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.acme.search;
+
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Descreve como pesquisar uma entidade: as consultas Panache dela, o caminho
+ * do endpoint, as chaves de ordenação aceitas e como obter o id.
+ */
+public class SearchTarget<T> {
+
+    @FunctionalInterface
+    public interface Counter {
+        long count(String query, Parameters params);
+    }
+
+    public final Class<T> type;
+    public final String path;
+    public final SortKeys sorts;
+    final KeysetPage.Finder<T> finder;
+    final Counter counter;
+    final Function<T, Long> id;
+
+    public SearchTarget(Class<T> type, String path, SortKeys sorts, KeysetPage.Finder<T> finder, Counter counter,
+                        Function<T, Long> id) {
+        this.type = type;
+        this.path = path;
+        this.sorts = sorts;
+        this.finder = finder;
+        this.counter = counter;
+        this.id = id;
+    }
+
+    /**
+     * Carrega as entidades com uma única consulta {@code IN}, devolvendo-as na
+     * mesma ordem dos ids informados. Ids inexistentes são ignorados.
+     */
+    public List<T> findByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, T> byId = new HashMap<>();
+        for (T entity : finder.find("id in :ids", Sort.by("id"), Parameters.with("ids", ids)).list()) {
+            byId.put(id.apply(entity), entity);
+        }
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (Long key : ids) {
+            T entity = byId.get(key);
+            if (entity != null) {
+                ordered.add(entity);
+            }
+        }
+        return ordered;
+    }
+}
@@ -0,0 +1,80 @@
+package org.acme.search;
+
+import io.quarkus.panache.common.Sort;
+import jakarta.ws.rs.BadRequestException;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Chaves de ordenação aceitas pelo {@code /search} de uma entidade. Cada
+ * chave corresponde a um índice {@code (coluna, id)} no banco, e as
+ * ordenações (com o id como desempate) são montadas uma vez aqui.
+ * <p>
+ * Como só essas chaves chegam ao HQL, o número de consultas distintas é fixo
+ * e o cache de planos do Hibernate ({@code query-plan-cache-max-size}) não é
+ * poluído por variações vindas do cliente.
+ */
+public final class SortKeys {
+
+    private final Map<String, SortKey> keys = new LinkedHashMap<>();
+
+    private SortKeys(String... fields) {
+        add("id");
+        for (String field : fields) {
+            add(field);
+        }
+    }
+
+    /**
+     * {@code id} é sempre aceito; os demais campos precisam ter índice.
+     */
+    public static SortKeys of(String... fields) {
+        return new SortKeys(fields);
+    }
+
+    private void add(String field) {
+        keys.put(field.toLowerCase(Locale.ROOT), new SortKey(field));
+    }
+
+    /**
+     * Chave pedida pelo cliente, sem diferenciar maiúsculas. Chaves fora da
+     * lista são recusadas antes de qualquer acesso ao banco.
+     */
+    public SortKey resolve(String requested) {
+        SortKey key = requested == null ? keys.get("id") : keys.get(requested.trim().toLowerCase(Locale.ROOT));
+        if (key == null) {
+            throw new BadRequestException("Ordenação inválida: " + requested + ". Valores aceitos: " + names() + ".");
+        }
+        return key;
+    }
+
+    public String names() {
+        StringBuilder names = new StringBuilder();
+        for (SortKey key : keys.values()) {
+            names.append(names.length() == 0 ? "" : ", ").append(key.field);
+        }
+        return names.append(", ").append(CatalogSearch.RELEVANCE).toString();
+    }
+
+    public static final class SortKey {
+        public final String field;
+        private final Sort ascending;
+        private final Sort descending;
+
+        private SortKey(String field) {
+            this.field = field;
+            this.ascending = KeysetCursor.sortOf(field, Sort.Direction.Ascending);
+            this.descending = KeysetCursor.sortOf(field, Sort.Direction.Descending);
+        }
+
+        /**
+         * Mesma ordenação nos modos offset e cursor: nulos no fim e id como
+         * desempate, para que a paginação seja estável.
+         */
+        public Sort sort(Sort.Direction direction) {
+            return direction == Sort.Direction.Descending ? descending : ascending;
+        }
+    }
+}
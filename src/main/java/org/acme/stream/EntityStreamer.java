@@ -0,0 +1,95 @@
+package org.acme.stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.jpa.HibernateHints;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Escreve uma tabela inteira na resposta à medida que as linhas são lidas do
+ * cursor, em lotes de {@code stream.fetch-size}. A sessão é limpa a cada lote,
+ * então o uso de heap não depende do tamanho do catálogo.
+ */
+@ApplicationScoped
+public class EntityStreamer {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    @Inject
+    ObjectMapper mapper;
+
+    @ConfigProperty(name = "stream.fetch-size", defaultValue = "500")
+    int fetchSize;
+
+    // Sem flush a cada entidade: o gerador só é descarregado no fim de cada lote
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    // Uma entidade JSON por linha
+    public StreamingOutput ndjson(Class<?> type, Supplier<PanacheQuery<?>> query) {
+        return out -> write(type, query, out, true);
+    }
+
+    // Um único array JSON, enviado em chunks
+    public StreamingOutput jsonArray(Class<?> type, Supplier<PanacheQuery<?>> query) {
+        return out -> write(type, query, out, false);
+    }
+
+    private void write(Class<?> type, Supplier<PanacheQuery<?>> query, OutputStream out, boolean ndjson) {
+        // A escrita acontece depois que o método do recurso retornou: abre a própria transação de leitura
+        ObjectWriter writer = writers.computeIfAbsent(type,
+                t -> mapper.writerFor(t).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE));
+        QuarkusTransaction.requiringNew().run(() -> {
+            EntityManager em = Panache.getEntityManager(type);
+            try (JsonGenerator gen = mapper.getFactory().createGenerator(out);
+                 Stream<?> rows = query.get()
+                         .withHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                         .withHint(HibernateHints.HINT_READ_ONLY, true)
+                         .stream()) {
+                gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                gen.setRootValueSeparator(null);
+                if (!ndjson) {
+                    gen.writeStartArray();
+                }
+
+                int inBatch = 0;
+                Iterator<?> it = rows.iterator();
+                while (it.hasNext()) {
+                    writer.writeValue(gen, it.next());
+                    if (ndjson) {
+                        gen.writeRaw('\n');
+                    }
+                    if (++inBatch == fetchSize) {
+                        gen.flush();
+                        em.clear();
+                        inBatch = 0;
+                    }
+                }
+
+                if (!ndjson) {
+                    gen.writeEndArray();
+                }
+                gen.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,54 @@
+-- Esquema inicial do catálogo. Espelha o mapeamento das entidades; os índices
+-- compostos (coluna, id) servem a ordenação e a paginação por cursor.
+
+CREATE SEQUENCE Desenvolvedora_SEQ START WITH 100 INCREMENT BY 50;
+CREATE SEQUENCE Genero_SEQ START WITH 100 INCREMENT BY 50;
+CREATE SEQUENCE Jogo_SEQ START WITH 100 INCREMENT BY 50;
+
+CREATE TABLE Desenvolvedora (
+    id             BIGINT       NOT NULL,
+    versao         BIGINT,
+    nome           VARCHAR(255),
+    dataDeFundacao DATE,
+    paisDeOrigem   VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE Genero (
+    id        BIGINT       NOT NULL,
+    versao    BIGINT,
+    nome      VARCHAR(50),
+    descricao VARCHAR(200),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE Jogo (
+    id                BIGINT       NOT NULL,
+    versao            BIGINT,
+    titulo            VARCHAR(100),
+    descricao         VARCHAR(500),
+    anoLancamento     INTEGER      NOT NULL,
+    genero_id         BIGINT,
+    desenvolvedora_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_jogo_genero FOREIGN KEY (genero_id) REFERENCES Genero (id),
+    CONSTRAINT fk_jogo_desenvolvedora FOREIGN KEY (desenvolvedora_id) REFERENCES Desenvolvedora (id)
+);
+
+CREATE INDEX idx_jogo_genero ON Jogo (genero_id);
+CREATE INDEX idx_jogo_desenvolvedora ON Jogo (desenvolvedora_id);
+CREATE INDEX idx_jogo_titulo ON Jogo (titulo, id);
+CREATE INDEX idx_jogo_ano ON Jogo (anoLancamento, id);
+CREATE INDEX idx_genero_nome ON Genero (nome, id);
+CREATE INDEX idx_desenvolvedora_nome ON Desenvolvedora (nome, id);
+CREATE INDEX idx_desenvolvedora_pais ON Desenvolvedora (paisDeOrigem, id);
+
+CREATE TABLE idempotency_entry (
+    idempotency_key VARCHAR(512) NOT NULL,
+    completed       BOOLEAN      NOT NULL,
+    expiresAt       TIMESTAMP(6) WITH TIME ZONE,
+    response        BLOB,
+    PRIMARY KEY (idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_expires_at ON idempotency_entry (expiresAt);
@@ -0,0 +1,23 @@
+-- Dados iniciais do catálogo. Roda uma única vez (histórico do Flyway);
+-- reinícios não apagam nem recarregam nada.
+
+-- Inserindo Desenvolvedoras
+INSERT INTO Desenvolvedora (id, versao, nome, dataDeFundacao, paisDeOrigem) VALUES (1, 0, 'Nintendo', '1889-09-23', 'Japão');
+INSERT INTO Desenvolvedora (id, versao, nome, dataDeFundacao, paisDeOrigem) VALUES (2, 0, 'Valve Corporation', '1996-08-24', 'Estados Unidos');
+INSERT INTO Desenvolvedora (id, versao, nome, dataDeFundacao, paisDeOrigem) VALUES (3, 0, 'CD Projekt Red', '2002-02-01', 'Polônia');
+INSERT INTO Desenvolvedora (id, versao, nome, dataDeFundacao, paisDeOrigem) VALUES (4, 0, 'Capcom', '1979-05-30', 'Japão');
+INSERT INTO Desenvolvedora (id, versao, nome, dataDeFundacao, paisDeOrigem) VALUES (5, 0, 'ConcernedApe', '2012-01-01', 'Estados Unidos');
+
+-- Inserindo Gêneros
+INSERT INTO Genero (id, versao, nome, descricao) VALUES (1, 0, 'Ação', 'Jogos que enfatizam desafios físicos, incluindo coordenação mão-olho e tempos de reação.');
+INSERT INTO Genero (id, versao, nome, descricao) VALUES (2, 0, 'RPG', 'Role-Playing Game, onde o jogador controla as ações de um personagem imerso em um mundo bem definido.');
+INSERT INTO Genero (id, versao, nome, descricao) VALUES (3, 0, 'Estratégia', 'Jogos onde a vitória é alcançada através de pensamento e planejamento tático superior.');
+INSERT INTO Genero (id, versao, nome, descricao) VALUES (4, 0, 'Simulação', 'Jogos projetados para simular atividades do mundo real.');
+INSERT INTO Genero (id, versao, nome, descricao) VALUES (5, 0, 'Terror', 'Jogos projetados para assustar o jogador através de suspense e horror.');
+
+-- Inserindo Jogos
+INSERT INTO Jogo (id, versao, titulo, descricao, anoLancamento, genero_id, desenvolvedora_id) VALUES (1, 0, 'The Legend of Zelda: Breath of the Wild', 'Jogo de ação e aventura em mundo aberto onde Link acorda de um sono de 100 anos.', 2017, 1, 1);
+INSERT INTO Jogo (id, versao, titulo, descricao, anoLancamento, genero_id, desenvolvedora_id) VALUES (2, 0, 'Half-Life 2', 'Tiro em primeira pessoa que combina ação intensa com uma narrativa imersiva.', 2004, 1, 2);
+INSERT INTO Jogo (id, versao, titulo, descricao, anoLancamento, genero_id, desenvolvedora_id) VALUES (3, 0, 'The Witcher 3: Wild Hunt', 'RPG de ação focado em narrativa ambientado em um mundo de fantasia visualmente deslumbrante.', 2015, 2, 3);
+INSERT INTO Jogo (id, versao, titulo, descricao, anoLancamento, genero_id, desenvolvedora_id) VALUES (4, 0, 'Stardew Valley', 'Um RPG de simulação agrícola onde você herda a antiga fazenda do seu avô.', 2016, 4, 5);
+INSERT INTO Jogo (id, versao, titulo, descricao, anoLancamento, genero_id, desenvolvedora_id) VALUES (5, 0, 'Resident Evil 4', 'Jogo de terror de sobrevivência que segue o agente especial Leon S. Kennedy.', 2005, 5, 4);
@@ -0,0 +1,17 @@
+-- Log de mudanças do catálogo (/v1/changes). Na primeira subida depois desta
+-- migration o ChangeLog registra o estado atual das tabelas.
+
+CREATE SEQUENCE change_log_SEQ START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE change_log (
+    seq          BIGINT       NOT NULL,
+    tipo         VARCHAR(50)  NOT NULL,
+    entidadeId   BIGINT       NOT NULL,
+    operacao     VARCHAR(16)  NOT NULL,
+    registradoEm TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    dados        CLOB,
+    PRIMARY KEY (seq)
+);
+
+CREATE INDEX idx_change_log_entidade ON change_log (tipo, entidadeId, seq);
+CREATE INDEX idx_change_log_registrado ON change_log (registradoEm);
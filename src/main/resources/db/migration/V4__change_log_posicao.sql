@@ -0,0 +1,16 @@
+-- Posição de publicação do log (/v1/changes). A seq é reservada dentro da
+-- transação da escrita e pode fazer commit fora de ordem; a posição só é
+-- atribuída depois do commit, em ordem, por um publicador de cada vez.
+
+ALTER TABLE change_log ADD COLUMN posicao BIGINT;
+UPDATE change_log SET posicao = seq;
+CREATE UNIQUE INDEX idx_change_log_posicao ON change_log (posicao);
+
+-- Linha única: guarda a última posição e serve de lock entre réplicas
+CREATE TABLE change_log_head (
+    id            INTEGER NOT NULL,
+    ultimaPosicao BIGINT  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO change_log_head (id, ultimaPosicao) SELECT 1, COALESCE(MAX(seq), 0) FROM change_log;
@@ -0,0 +1,2 @@
+-- Versão das tabelas para os ETags de listas: max(posicao) por tipo
+CREATE INDEX idx_change_log_tipo_posicao ON change_log (tipo, posicao);
@@ -0,0 +1,16 @@
+-- Versão de cada tabela do catálogo para os ETags de listas e a chave do
+-- cache de pesquisas. Incrementada na transação de cada escrita e lida pela
+-- chave primária (ver CatalogETags).
+
+CREATE TABLE catalog_version (
+    tipo   VARCHAR(50) NOT NULL,
+    versao BIGINT      NOT NULL,
+    PRIMARY KEY (tipo)
+);
+
+INSERT INTO catalog_version (tipo, versao) VALUES ('Jogo', 0);
+INSERT INTO catalog_version (tipo, versao) VALUES ('Genero', 0);
+INSERT INTO catalog_version (tipo, versao) VALUES ('Desenvolvedora', 0);
+
+-- O índice da V5 só servia ao max(posicao) por tipo das versões antigas
+DROP INDEX idx_change_log_tipo_posicao;
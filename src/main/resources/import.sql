@@ -1,20 +1,34 @@
 -- Inserindo Desenvolvedoras
-INSERT INTO Desenvolvedora (nome, dataDeFundacao, paisDeOrigem) VALUES ('Nintendo', '1889-09-23', 'Japão');
-INSERT INTO Desenvolvedora (nome, dataDeFundacao, paisDeOrigem) VALUES ('Valve Corporation', '1996-08-24', 'Estados Unidos');
-INSERT INTO Desenvolvedora (nome, dataDeFundacao, paisDeOrigem) VALUES ('CD Projekt Red', '2002-02-01', 'Polônia');
-INSERT INTO Desenvolvedora (nome, dataDeFundacao, paisDeOrigem) VALUES ('Capcom', '1979-05-30', 'Japão');
-INSERT INTO Desenvolvedora (nome, dataDeFundacao, paisDeOrigem) VALUES ('ConcernedApe', '2012-01-01', 'Estados Unidos');
+INSERT INTO Desenvolvedora (id, versao, nome, dataDeFundacao, paisDeOrigem) VALUES (1, 0, 'Nintendo', '1889-09-23', 'Japão');
+INSERT INTO Desenvolvedora (id, versao, nome, dataDeFundacao, paisDeOrigem) VALUES (2, 0, 'Valve Corporation', '1996-08-24', 'Estados Unidos');
+INSERT INTO Desenvolvedora (id, versao, nome, dataDeFundacao, paisDeOrigem) VALUES (3, 0, 'CD Projekt Red', '2002-02-01', 'Polônia');
+INSERT INTO Desenvolvedora (id, versao, nome, dataDeFundacao, paisDeOrigem) VALUES (4, 0, 'Capcom', '1979-05-30', 'Japão');
+INSERT INTO Desenvolvedora (id, versao, nome, dataDeFundacao, paisDeOrigem) VALUES (5, 0, 'ConcernedApe', '2012-01-01', 'Estados Unidos');
 
 -- Inserindo Gêneros
-INSERT INTO Genero (nome, descricao) VALUES ('Ação', 'Jogos que enfatizam desafios físicos, incluindo coordenação mão-olho e tempos de reação.');
-INSERT INTO Genero (nome, descricao) VALUES ('RPG', 'Role-Playing Game, onde o jogador controla as ações de um personagem imerso em um mundo bem definido.');
-INSERT INTO Genero (nome, descricao) VALUES ('Estratégia', 'Jogos onde a vitória é alcançada através de pensamento e planejamento tático superior.');
-INSERT INTO Genero (nome, descricao) VALUES ('Simulação', 'Jogos projetados para simular atividades do mundo real.');
-INSERT INTO Genero (nome, descricao) VALUES ('Terror', 'Jogos projetados para assustar o jogador através de suspense e horror.');
+INSERT INTO Genero (id, versao, nome, descricao) VALUES (1, 0, 'Ação', 'Jogos que enfatizam desafios físicos, incluindo coordenação mão-olho e tempos de reação.');
+INSERT INTO Genero (id, versao, nome, descricao) VALUES (2, 0, 'RPG', 'Role-Playing Game, onde o jogador controla as ações de um personagem imerso em um mundo bem definido.');
+INSERT INTO Genero (id, versao, nome, descricao) VALUES (3, 0, 'Estratégia', 'Jogos onde a vitória é alcançada através de pensamento e planejamento tático superior.');
+INSERT INTO Genero (id, versao, nome, descricao) VALUES (4, 0, 'Simulação', 'Jogos projetados para simular atividades do mundo real.');
+INSERT INTO Genero (id, versao, nome, descricao) VALUES (5, 0, 'Terror', 'Jogos projetados para assustar o jogador através de suspense e horror.');
 
 -- Inserindo Jogos
-INSERT INTO Jogo (titulo, descricao, anoLancamento) VALUES ('The Legend of Zelda: Breath of the Wild', 'Jogo de ação e aventura em mundo aberto onde Link acorda de um sono de 100 anos.', 2017);
-INSERT INTO Jogo (titulo, descricao, anoLancamento) VALUES ('Half-Life 2', 'Tiro em primeira pessoa que combina ação intensa com uma narrativa imersiva.', 2004);
-INSERT INTO Jogo (titulo, descricao, anoLancamento) VALUES ('The Witcher 3: Wild Hunt', 'RPG de ação focado em narrativa ambientado em um mundo de fantasia visualmente deslumbrante.', 2015);
-INSERT INTO Jogo (titulo, descricao, anoLancamento) VALUES ('Stardew Valley', 'Um RPG de simulação agrícola onde você herda a antiga fazenda do seu avô.', 2016);
-INSERT INTO Jogo (titulo, descricao, anoLancamento) VALUES ('Resident Evil 4', 'Jogo de terror de sobrevivência que segue o agente especial Leon S. Kennedy.', 2005);
\ No newline at end of file
+INSERT INTO Jogo (id, versao, titulo, descricao, anoLancamento, genero_id, desenvolvedora_id) VALUES (1, 0, 'The Legend of Zelda: Breath of the Wild', 'Jogo de ação e aventura em mundo aberto onde Link acorda de um sono de 100 anos.', 2017, 1, 1);
+INSERT INTO Jogo (id, versao, titulo, descricao, anoLancamento, genero_id, desenvolvedora_id) VALUES (2, 0, 'Half-Life 2', 'Tiro em primeira pessoa que combina ação intensa com uma narrativa imersiva.', 2004, 1, 2);
+INSERT INTO Jogo (id, versao, titulo, descricao, anoLancamento, genero_id, desenvolvedora_id) VALUES (3, 0, 'The Witcher 3: Wild Hunt', 'RPG de ação focado em narrativa ambientado em um mundo de fantasia visualmente deslumbrante.', 2015, 2, 3);
+INSERT INTO Jogo (id, versao, titulo, descricao, anoLancamento, genero_id, desenvolvedora_id) VALUES (4, 0, 'Stardew Valley', 'Um RPG de simulação agrícola onde você herda a antiga fazenda do seu avô.', 2016, 4, 5);
+INSERT INTO Jogo (id, versao, titulo, descricao, anoLancamento, genero_id, desenvolvedora_id) VALUES (5, 0, 'Resident Evil 4', 'Jogo de terror de sobrevivência que segue o agente especial Leon S. Kennedy.', 2005, 5, 4);
+
+-- Ids por sequence (allocationSize 50): avança as sequences para além dos ids fixos acima
+ALTER SEQUENCE Desenvolvedora_SEQ RESTART WITH 100;
+ALTER SEQUENCE Genero_SEQ RESTART WITH 100;
+ALTER SEQUENCE Jogo_SEQ RESTART WITH 100;
+
+
+-- Cabeça do log de mudanças (linha única, ver ChangeLogHead)
+INSERT INTO change_log_head (id, ultimaPosicao) VALUES (1, 0);
+
+-- Versões das tabelas para os ETags de listas (ver CatalogETags)
+INSERT INTO catalog_version (tipo, versao) VALUES ('Jogo', 0);
+INSERT INTO catalog_version (tipo, versao) VALUES ('Genero', 0);
+INSERT INTO catalog_version (tipo, versao) VALUES ('Desenvolvedora', 0);
\ No newline at end of file
@@ -0,0 +1,115 @@
+package org.acme;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Os expands precisam custar o mesmo número de SQLs para qualquer tamanho de página
+@QuarkusTest
+class JogoFetchPlanTest {
+
+    private static boolean seeded;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < 60; i++) {
+                Jogo jogo = new Jogo();
+                jogo.titulo = "Jogo de teste " + i;
+                jogo.anoLancamento = 2000 + i % 20;
+                jogo.generoId = 1L + i % 5;
+                jogo.desenvolvedoraId = 1L + i % 5;
+                jogo.persist();
+            }
+        });
+        seeded = true;
+    }
+
+    @Test
+    void getAllComExpandUsaUmaConsulta() {
+        long statements = statements(() -> given()
+                .queryParam("expand", "genero,desenvolvedora")
+                .when().get("/v1/jogos")
+                .then()
+                .statusCode(200)
+                .body("[0].genero.nome", notNullValue())
+                .body("[0].desenvolvedora.nome", notNullValue()));
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void getAllComExpandEPaginado() {
+        given()
+                .queryParam("expand", "genero")
+                .queryParam("size", 5)
+                .when().get("/v1/jogos")
+                .then()
+                .statusCode(200)
+                .body("size()", is(5));
+    }
+
+    @Test
+    void getByIdComExpandUsaUmaConsulta() {
+        long statements = statements(() -> given()
+                .queryParam("expand", "genero,desenvolvedora")
+                .when().get("/v1/jogos/1")
+                .then()
+                .statusCode(200)
+                .body("genero.nome", is("Ação"))
+                .body("desenvolvedora.nome", is("Nintendo")));
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void jogosDaDesenvolvedoraNaoDependemDoTamanhoDaPagina() {
+        // Aquece o cache de entidades com a desenvolvedora
+        given().when().get("/v1/desenvolvedoras/1/jogos").then().statusCode(200);
+
+        long pequena = statements(() -> given()
+                .queryParam("size", 2)
+                .queryParam("expand", "genero")
+                .when().get("/v1/desenvolvedoras/1/jogos")
+                .then().statusCode(200));
+        long grande = statements(() -> given()
+                .queryParam("size", 50)
+                .queryParam("expand", "genero")
+                .when().get("/v1/desenvolvedoras/1/jogos")
+                .then().statusCode(200));
+
+        assertEquals(1, pequena);
+        assertEquals(pequena, grande);
+    }
+
+    @Test
+    void expandDesconhecidoRetorna400() {
+        given()
+                .queryParam("expand", "publicadora")
+                .when().get("/v1/jogos")
+                .then()
+                .statusCode(400);
+    }
+
+    private long statements(Runnable request) {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        request.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,48 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+
+// Headers controlados pelo cliente (X-Forwarded-For, X-Api-Key) não podem gerar baldes novos
+@QuarkusTest
+@TestProfile(RateLimitingFilterTest.ProxyProfile.class)
+class RateLimitingFilterTest {
+
+    public static class ProxyProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            // O cliente do teste (127.0.0.1) não é um proxy confiável
+            return Map.of(
+                    "rate-limit.capacity", "3",
+                    "rate-limit.refill-period", "PT1H",
+                    "rate-limit.api-keys", "chave-conhecida",
+                    "quarkus.http.proxy.proxy-address-forwarding", "true",
+                    "quarkus.http.proxy.allow-x-forwarded", "true",
+                    "quarkus.http.proxy.trusted-proxies", "10.255.255.1");
+        }
+    }
+
+    @Test
+    void forwardedForEChavesInventadasNaoBurlamOLimite() {
+        for (int i = 0; i < 3; i++) {
+            given().header("X-Forwarded-For", "198.51.100." + i)
+                    .header("X-Api-Key", "inventada-" + i)
+                    .when().get("/v1/generos")
+                    .then().statusCode(200);
+        }
+        given().header("X-Forwarded-For", "198.51.100.99")
+                .header("X-Api-Key", "inventada-99")
+                .when().get("/v1/generos")
+                .then().statusCode(429);
+
+        given().header("X-Api-Key", "chave-conhecida")
+                .when().get("/v1/generos")
+                .then().statusCode(200);
+    }
+}
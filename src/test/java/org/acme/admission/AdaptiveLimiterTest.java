@@ -0,0 +1,99 @@
+package org.acme.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void recusaAcimaDoLimiteSemFila() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(2, 1, 10, Duration.ofMillis(100), 0.5, Duration.ZERO, 0, Duration.ZERO);
+
+        assertTrue(limiter.acquire());
+        assertTrue(limiter.acquire());
+        assertFalse(limiter.acquire());
+        assertEquals(1, limiter.rejected());
+
+        limiter.release(FAST, false);
+        assertTrue(limiter.acquire());
+    }
+
+    @Test
+    void cresceComRespostasRapidasECaiComLentas() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(4, 2, 5, Duration.ofMillis(100), 0.5, Duration.ZERO, 0, Duration.ZERO);
+
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire();
+        }
+        limiter.release(FAST, false);
+        limiter.release(FAST, false);
+        assertEquals(5, limiter.limit());
+
+        limiter.release(SLOW, false);
+        assertEquals(2, limiter.limit());
+
+        limiter.release(FAST, true);
+        assertEquals(2, limiter.limit());
+    }
+
+    @Test
+    void rajadaDeLentasReduzUmaVezPorJanela() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(16, 1, 16, Duration.ofMillis(100), 0.5, Duration.ofHours(1), 0, Duration.ZERO);
+
+        for (int i = 0; i < 8; i++) {
+            limiter.acquire();
+        }
+        for (int i = 0; i < 8; i++) {
+            limiter.release(SLOW, i % 2 == 0);
+        }
+        assertEquals(8, limiter.limit());
+    }
+
+    @Test
+    void tryAcquireNaoEntraNaFila() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(1, 1, 1, Duration.ofMillis(100), 0.5, Duration.ZERO, 5, Duration.ofSeconds(5));
+
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(0, limiter.queued());
+        assertEquals(1, limiter.rejected());
+    }
+
+    @Test
+    void naoCresceComDemandaBaixa() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(10, 1, 100, Duration.ofMillis(100), 0.5, Duration.ZERO, 0, Duration.ZERO);
+
+        for (int i = 0; i < 20; i++) {
+            limiter.acquire();
+            limiter.release(FAST, false);
+        }
+        assertEquals(10, limiter.limit());
+    }
+
+    @Test
+    void filaEsperaPorVaga() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(1, 1, 1, Duration.ofMillis(100), 0.5, Duration.ZERO, 1, Duration.ofSeconds(5));
+        assertTrue(limiter.acquire());
+
+        Thread releaser = new Thread(() -> {
+            while (limiter.queued() == 0) {
+                Thread.onSpinWait();
+            }
+            limiter.release(FAST, false);
+        });
+        releaser.start();
+
+        assertTrue(limiter.acquire());
+        releaser.join();
+        assertEquals(0, limiter.queued());
+    }
+}
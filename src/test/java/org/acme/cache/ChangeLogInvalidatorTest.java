@@ -0,0 +1,60 @@
+package org.acme.cache;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.acme.changes.ChangeLogEntry;
+import org.acme.events.CatalogChange;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Uma escrita feita em outra réplica não pode ser servida do cache local além do limite documentado
+@QuarkusTest
+class ChangeLogInvalidatorTest {
+
+    @Inject
+    EntityManager em;
+
+    @ConfigProperty(name = "changes.publish.interval")
+    Duration publishInterval;
+
+    @ConfigProperty(name = "entity-cache.sync-interval")
+    Duration syncInterval;
+
+    @Test
+    void escritaDeOutraReplicaSaiDoCacheDentroDoLimite() throws InterruptedException {
+        given().when().get("/v1/generos/5")
+                .then().statusCode(200)
+                .body("nome", is("Terror"));
+
+        // O que outra réplica grava: a linha e a entrada no log, sem o evento local desta réplica
+        QuarkusTransaction.requiringNew().run(() -> {
+            em.createNativeQuery("UPDATE Genero SET nome = 'Horror', versao = versao + 1 WHERE id = 5").executeUpdate();
+            ChangeLogEntry entry = new ChangeLogEntry();
+            entry.tipo = "Genero";
+            entry.entidadeId = 5L;
+            entry.operacao = CatalogChange.Operation.UPDATED;
+            entry.registradoEm = Instant.now();
+            entry.persist();
+        });
+
+        // Limite documentado mais uma folga para as execuções agendadas
+        long deadline = System.nanoTime() + publishInterval.plus(syncInterval).plusSeconds(2).toNanos();
+        String nome;
+        do {
+            Thread.sleep(250);
+            nome = given().when().get("/v1/generos/5")
+                    .then().statusCode(200)
+                    .extract().path("nome");
+        } while (!"Horror".equals(nome) && System.nanoTime() < deadline);
+        assertEquals("Horror", nome);
+    }
+}
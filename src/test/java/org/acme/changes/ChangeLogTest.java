@@ -0,0 +1,119 @@
+package org.acme.changes;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.acme.Desenvolvedora;
+import org.acme.Genero;
+import org.acme.Jogo;
+import org.acme.events.CatalogChange;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// O feed precisa entregar cada mudança uma vez, mesmo com commits fora da ordem das seqs
+@QuarkusTest
+class ChangeLogTest {
+
+    @Inject
+    ChangeLog changeLog;
+
+    @Test
+    void commitAtrasadoNaoEPulado() throws Exception {
+        ChangeCursor cursor = tail();
+        CountDownLatch reservada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Reserva a seq menor e segura o commit
+            Future<?> lenta = executor.submit(() -> QuarkusTransaction.requiringNew().run(() -> {
+                changeLog.record(CatalogChange.deleted(Genero.class, 9001L));
+                ChangeLogEntry.flush();
+                reservada.countDown();
+                await(liberar);
+            }));
+            assertTrue(reservada.await(10, TimeUnit.SECONDS));
+
+            QuarkusTransaction.requiringNew().run(() -> changeLog.record(CatalogChange.deleted(Genero.class, 9002L)));
+            changeLog.publish();
+            ChangeFeedResponse primeira = changeLog.read(cursor, 100);
+            assertEquals(List.of(9002L), ids(primeira));
+
+            liberar.countDown();
+            lenta.get(10, TimeUnit.SECONDS);
+            changeLog.publish();
+            ChangeFeedResponse segunda = changeLog.read(ChangeCursor.decode(primeira.NextCursor), 100);
+            assertEquals(List.of(9001L), ids(segunda));
+        } finally {
+            liberar.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void cargaInicialRodaUmaVezEntreReplicas() throws Exception {
+        QuarkusTransaction.requiringNew().run(() -> ChangeLogEntry.deleteAll());
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> cargas = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                cargas.add(executor.submit(() -> {
+                    await(largada);
+                    changeLog.onStart(new StartupEvent());
+                }));
+            }
+            largada.countDown();
+            for (Future<?> carga : cargas) {
+                carga.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long entidades = QuarkusTransaction.requiringNew().call(() -> Jogo.count() + Genero.count() + Desenvolvedora.count());
+        long entradas = QuarkusTransaction.requiringNew().call(() -> ChangeLogEntry.count());
+        assertEquals(entidades, entradas);
+    }
+
+    // Cursor no fim do log publicado
+    private ChangeCursor tail() {
+        changeLog.publish();
+        ChangeFeedResponse page;
+        ChangeCursor cursor = null;
+        do {
+            page = changeLog.read(cursor, 1000);
+            cursor = ChangeCursor.decode(page.NextCursor);
+        } while (page.HasMore);
+        return cursor;
+    }
+
+    private static List<Long> ids(ChangeFeedResponse response) {
+        List<Long> ids = new ArrayList<>();
+        for (ChangeFeedResponse.Change change : response.Changes) {
+            ids.add(change.Id);
+        }
+        return ids;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Tempo esgotado esperando o latch");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.acme.etag;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+// O ETag da lista muda no commit da escrita, sem esperar o publicador do change_log
+@QuarkusTest
+class CatalogETagsTest {
+
+    @Test
+    void getDepoisDeUmPutNaoRespondeNotModified() {
+        String antes = given().when().get("/v1/generos")
+                .then().statusCode(200)
+                .extract().header("ETag");
+
+        given().contentType("application/json")
+                .header("X-Idempotency-Key", "etag-put-1")
+                .body("{\"nome\":\"Simulação\",\"descricao\":\"Versão alterada pelo teste de ETag\"}")
+                .when().put("/v1/generos/4")
+                .then().statusCode(200);
+
+        String depois = given().header("If-None-Match", antes)
+                .when().get("/v1/generos")
+                .then().statusCode(200)
+                .body("descricao", hasItem("Versão alterada pelo teste de ETag"))
+                .extract().header("ETag");
+        assertNotEquals(antes, depois);
+
+        given().header("If-None-Match", depois)
+                .when().get("/v1/generos")
+                .then().statusCode(304)
+                .header("ETag", not(antes));
+    }
+}
@@ -0,0 +1,65 @@
+package org.acme.exception;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.acme.Jogo;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ViolationMessagesTest {
+
+    private final Validator validator = Validation.byDefaultProvider()
+            .configure()
+            .messageInterpolator(new ParameterMessageInterpolator())
+            .buildValidatorFactory()
+            .getValidator();
+
+    private static Jogo invalido() {
+        Jogo jogo = new Jogo();
+        jogo.titulo = "";
+        jogo.descricao = "x".repeat(600);
+        jogo.anoLancamento = 1900;
+        return jogo;
+    }
+
+    @Test
+    void campoVemDoUltimoNoDoCaminho() {
+        ViolationMessages messages = new ViolationMessages(50);
+        Set<ConstraintViolation<Jogo>> violations = validator.validate(invalido());
+
+        List<String> errors = messages.list(violations);
+
+        assertEquals(3, errors.size());
+        assertTrue(errors.contains("titulo: O título do jogo é obrigatório"));
+        assertTrue(errors.contains("anoLancamento: O ano de lançamento deve ser válido (a partir de 1950)"));
+    }
+
+    @Test
+    void mensagemRepetidaEReaproveitada() {
+        ViolationMessages messages = new ViolationMessages(50);
+        ConstraintViolation<Jogo> first = validator.validate(invalido()).stream()
+                .filter(v -> "titulo".equals(ViolationMessages.field(v))).findFirst().orElseThrow();
+        ConstraintViolation<Jogo> second = validator.validate(invalido()).stream()
+                .filter(v -> "titulo".equals(ViolationMessages.field(v))).findFirst().orElseThrow();
+
+        assertSame(messages.format(first), messages.format(second));
+    }
+
+    @Test
+    void limitaQuantidadeDeErros() {
+        ViolationMessages messages = new ViolationMessages(2);
+
+        List<String> errors = messages.list(validator.validate(invalido()));
+
+        assertEquals(3, errors.size());
+        assertEquals("... e mais 1 erro", errors.get(2));
+    }
+}
@@ -0,0 +1,136 @@
+package org.acme.facets;
+
+import jakarta.ws.rs.BadRequestException;
+import org.acme.Desenvolvedora;
+import org.acme.Genero;
+import org.acme.Jogo;
+import org.acme.events.CatalogChange;
+import org.acme.search.SearchFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JogoFacetsTest {
+
+    private JogoFacets facets;
+
+    @BeforeEach
+    void setUp() {
+        facets = new JogoFacets();
+        facets.onChange(CatalogChange.created(Genero.class, 1L, genero("Ação")));
+        facets.onChange(CatalogChange.created(Genero.class, 2L, genero("RPG")));
+        facets.onChange(CatalogChange.created(Desenvolvedora.class, 1L, desenvolvedora("Japão")));
+        facets.onChange(CatalogChange.created(Desenvolvedora.class, 2L, desenvolvedora("Polônia")));
+        created(1, 1998, 1L, 1L);
+        created(2, 2004, 1L, 1L);
+        created(3, 2015, 2L, 2L);
+        created(4, 2017, 1L, 1L);
+        created(5, 2017, null, null);
+    }
+
+    @Test
+    void contaPorDecadaGeneroEPais() {
+        Facets todas = facets.count(null, null, null);
+
+        assertEquals(Map.of("1990s", 1L, "2000s", 1L, "2010s", 3L), totais(todas.Decadas));
+        assertEquals(Map.of("Ação", 3L, "RPG", 1L, "Sem gênero", 1L), totais(todas.Generos));
+        assertEquals(Map.of("Japão", 3L, "Polônia", 1L, "Sem desenvolvedora", 1L), totais(todas.Paises));
+        // Mais frequentes primeiro
+        assertEquals("Ação", todas.Generos.get(0).Valor);
+        assertEquals(1L, todas.Generos.get(0).Id);
+    }
+
+    @Test
+    void faixaDeAnosSomaSoOsBaldesDentroDela() {
+        Facets faixa = facets.count(null, 2004, 2015);
+
+        assertEquals(Map.of("2000s", 1L, "2010s", 1L), totais(faixa.Decadas));
+        assertEquals(Map.of("Ação", 1L, "RPG", 1L), totais(faixa.Generos));
+        assertEquals(Map.of("2010s", 3L), totais(facets.count(null, 2010, null).Decadas));
+        assertEquals(Map.of("1990s", 1L), totais(facets.count(null, null, 1999).Decadas));
+    }
+
+    @Test
+    void comIdsContaSoOsJogosDoResultado() {
+        Facets resultado = facets.count(List.of(3L, 4L, 99L), null, null);
+
+        assertEquals(Map.of("2010s", 2L), totais(resultado.Decadas));
+        assertEquals(Map.of("Ação", 1L, "RPG", 1L), totais(resultado.Generos));
+    }
+
+    @Test
+    void updateEDeleteDesfazemAContagemAntiga() {
+        facets.onChange(CatalogChange.updated(Jogo.class, 1L, jogo(2016, 2L, 2L)));
+        facets.onChange(CatalogChange.deleted(Jogo.class, 5L));
+
+        Facets todas = facets.count(null, null, null);
+        assertEquals(Map.of("2000s", 1L, "2010s", 3L), totais(todas.Decadas));
+        assertEquals(Map.of("Ação", 2L, "RPG", 2L), totais(todas.Generos));
+    }
+
+    @Test
+    void filtroDeAnos() {
+        assertSame(SearchFilter.NONE, facets.anoEntre(null, null));
+        assertThrows(BadRequestException.class, () -> facets.anoEntre(2010, 2000));
+    }
+
+    @Test
+    void escritaDuranteORebuildNaoSePerde() {
+        facets.beginRebuild();
+        // Chega depois da leitura do banco, que não a viu
+        facets.onChange(CatalogChange.created(Jogo.class, 6L, jogo(2020, 2L, 2L)));
+        facets.onChange(CatalogChange.updated(Jogo.class, 3L, jogo(2001, 2L, 2L)));
+        facets.finishRebuild(
+                List.of(new Object[]{1L, 1998, 1L, 1L}, new Object[]{2L, 2004, 1L, 1L}, new Object[]{3L, 2015, 2L, 2L},
+                        new Object[]{4L, 2017, 1L, 1L}, new Object[]{5L, 2017, null, null}),
+                List.<Object[]>of(new Object[]{1L, "Ação"}, new Object[]{2L, "RPG"}),
+                List.<Object[]>of(new Object[]{1L, "Japão"}, new Object[]{2L, "Polônia"}));
+
+        assertEquals(Map.of("1990s", 1L, "2000s", 2L, "2010s", 2L, "2020s", 1L), totais(facets.count(null, null, null).Decadas));
+
+        // Fora do rebuild nada mais é guardado: um rebuild seguinte usa só o banco
+        facets.finishRebuild(List.<Object[]>of(new Object[]{1L, 1998, 1L, 1L}), List.of(), List.of());
+        assertEquals(Map.of("1990s", 1L), totais(facets.count(null, null, null).Decadas));
+    }
+
+    private void created(long id, int ano, Long generoId, Long desenvolvedoraId) {
+        facets.onChange(CatalogChange.created(Jogo.class, id, jogo(ano, generoId, desenvolvedoraId)));
+    }
+
+    private static Map<String, Long> totais(List<Facets.FacetValue> values) {
+        Map<String, Long> totais = new LinkedHashMap<>();
+        for (Facets.FacetValue value : values) {
+            totais.put(value.Valor, value.Total);
+        }
+        return totais;
+    }
+
+    private static Jogo jogo(int ano, Long generoId, Long desenvolvedoraId) {
+        Jogo jogo = new Jogo();
+        jogo.titulo = "Jogo " + ano;
+        jogo.anoLancamento = ano;
+        jogo.generoId = generoId;
+        jogo.desenvolvedoraId = desenvolvedoraId;
+        return jogo;
+    }
+
+    private static Genero genero(String nome) {
+        Genero genero = new Genero();
+        genero.nome = nome;
+        return genero;
+    }
+
+    private static Desenvolvedora desenvolvedora(String pais) {
+        Desenvolvedora desenvolvedora = new Desenvolvedora();
+        desenvolvedora.nome = "Estúdio " + pais;
+        desenvolvedora.paisDeOrigem = pais;
+        return desenvolvedora;
+    }
+}
@@ -0,0 +1,51 @@
+package org.acme.facets;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.path.json.JsonPath;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// anoMin/anoMax nos dois caminhos da pesquisa: predicado HQL (sem termo) e teste por id (com termo)
+@QuarkusTest
+class JogoSearchFacetsTest {
+
+    @Test
+    void faixaDeAnosSemTermoFiltraOsJogosEAsFacetas() {
+        JsonPath json = given().queryParam("anoMin", 2015).queryParam("anoMax", 2016).queryParam("size", 100)
+                .when().get("/v1/jogos/search")
+                .then().statusCode(200)
+                .extract().jsonPath();
+
+        List<Integer> anos = json.getList("Jogos.anoLancamento", Integer.class);
+        assertFalse(anos.isEmpty());
+        assertTrue(anos.stream().allMatch(ano -> ano >= 2015 && ano <= 2016), anos.toString());
+        assertEquals(List.of("2010s"), json.getList("Facets.Decadas.Valor", String.class));
+        assertEquals(json.getLong("TotalJogos"), json.getLong("Facets.Decadas[0].Total"));
+    }
+
+    @Test
+    void faixaDeAnosComTermoFiltraOsIdsDoIndice() {
+        JsonPath json = given().queryParam("q", "wild").queryParam("anoMax", 2016)
+                .when().get("/v1/jogos/search")
+                .then().statusCode(200)
+                .extract().jsonPath();
+
+        // Breath of the Wild (2017) fica de fora; Wild Hunt (2015) entra
+        assertEquals(List.of(3), json.getList("Jogos.id", Integer.class));
+        assertEquals(1L, json.getLong("TotalJogos"));
+        assertEquals(List.of("RPG"), json.getList("Facets.Generos.Valor", String.class));
+    }
+
+    @Test
+    void faixaInvertidaE400() {
+        given().queryParam("anoMin", 2010).queryParam("anoMax", 2000)
+                .when().get("/v1/jogos/search")
+                .then().statusCode(400);
+    }
+}
@@ -0,0 +1,93 @@
+package org.acme.idempotency;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// H2 em memória faz o papel da camada compartilhada
+@QuarkusTest
+class DatabaseIdempotencyStoreTest {
+
+    @Inject
+    DatabaseIdempotencyStore store;
+
+    @Inject
+    EntityManager em;
+
+    @Test
+    void segundaReservaEnxergaChaveEmAndamento() {
+        assertNull(store.reserve("POST:/v1/jogos:a", Duration.ofSeconds(30)));
+
+        IdempotencyStore.Entry entry = store.reserve("POST:/v1/jogos:a", Duration.ofSeconds(30));
+        assertNotNull(entry);
+        assertFalse(entry.completed());
+    }
+
+    @Test
+    void respostaConcluidaVoltaIgual() {
+        MultivaluedHashMap<String, String> headers = new MultivaluedHashMap<>();
+        headers.putSingle("Content-Type", "application/json");
+        byte[] body = "{\"id\":100}".getBytes(StandardCharsets.UTF_8);
+
+        assertNull(store.reserve("POST:/v1/jogos:b", Duration.ofSeconds(30)));
+        store.complete("POST:/v1/jogos:b", StoredResponse.of(201, headers, body, -1, false), Duration.ofHours(1));
+
+        IdempotencyStore.Entry entry = store.reserve("POST:/v1/jogos:b", Duration.ofSeconds(30));
+        assertTrue(entry.completed());
+        assertEquals(201, entry.response.status);
+        assertArrayEquals(body, entry.response.body());
+    }
+
+    @Test
+    void chaveLiberadaPodeSerReservadaDeNovo() {
+        assertNull(store.reserve("POST:/v1/jogos:c", Duration.ofSeconds(30)));
+        store.release("POST:/v1/jogos:c");
+
+        assertNull(store.reserve("POST:/v1/jogos:c", Duration.ofSeconds(30)));
+    }
+
+    @Test
+    void sweepRemoveChavesVencidas() {
+        assertNull(store.reserve("POST:/v1/jogos:d", Duration.ofSeconds(30)));
+        QuarkusTransaction.requiringNew().run(() -> {
+            IdempotencyEntry entry = IdempotencyEntry.findById("POST:/v1/jogos:d");
+            entry.expiresAt = Instant.now().minusSeconds(1);
+        });
+
+        store.sweep();
+
+        assertNull(QuarkusTransaction.requiringNew().call(() -> IdempotencyEntry.findById("POST:/v1/jogos:d")));
+    }
+
+    @Test
+    void chaveMaiorQueAColunaNaoViraEmAndamento() {
+        String key = "POST:/v1/jogos:" + "x".repeat(IdempotencyEntry.KEY_LENGTH);
+
+        assertThrows(IllegalArgumentException.class, () -> store.reserve(key, Duration.ofSeconds(30)));
+    }
+
+    @Test
+    void falhaDoInsertQueNaoEChaveDuplicadaSobe() {
+        // Uma CHECK faz o INSERT falhar por outro motivo que não a chave primária
+        QuarkusTransaction.requiringNew().run(() -> em.createNativeQuery(
+                "ALTER TABLE idempotency_entry ADD CONSTRAINT chk_teste_falha CHECK (idempotency_key NOT LIKE 'FALHA:%')")
+                .executeUpdate());
+        try {
+            assertThrows(RuntimeException.class, () -> store.reserve("FALHA:/v1/jogos:e", Duration.ofSeconds(30)));
+        } finally {
+            QuarkusTransaction.requiringNew().run(() -> em.createNativeQuery(
+                    "ALTER TABLE idempotency_entry DROP CONSTRAINT chk_teste_falha").executeUpdate());
+        }
+
+        assertNull(store.reserve("FALHA:/v1/jogos:e", Duration.ofSeconds(30)));
+    }
+}
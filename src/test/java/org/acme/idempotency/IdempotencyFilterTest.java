@@ -0,0 +1,109 @@
+package org.acme.idempotency;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.response.ExtractableResponse;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Várias requisições com a mesma chave ao mesmo tempo: uma executa, as outras esperam e recebem o replay ou 409
+@QuarkusTest
+@TestProfile(IdempotencyFilterTest.InFlightProfile.class)
+class IdempotencyFilterTest {
+
+    private static final int REQUESTS = 6;
+
+    public static class InFlightProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            // Sem rate limit nem controle de admissão no caminho: as esperas longas reduziriam o limite de escritas
+            return Map.of(
+                    "rate-limit.capacity", "100000",
+                    "admission.enabled", "false",
+                    "idempotency.in-flight-wait", "PT3S");
+        }
+    }
+
+    @BeforeEach
+    void reset() {
+        IdempotencyTestResource.reset();
+    }
+
+    @Test
+    void duplicatasEsperamAOriginalERecebemOReplay() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+        try {
+            Future<ExtractableResponse<Response>> original = executor.submit(() -> post("chave-replay"));
+            assertTrue(IdempotencyTestResource.started.await(10, TimeUnit.SECONDS));
+
+            List<Future<ExtractableResponse<Response>>> duplicatas = new ArrayList<>();
+            for (int i = 1; i < REQUESTS; i++) {
+                duplicatas.add(executor.submit(() -> post("chave-replay")));
+            }
+            // Bem menos que o in-flight-wait: as duplicatas ainda estão esperando quando a original termina
+            Thread.sleep(300);
+            IdempotencyTestResource.release.countDown();
+
+            ExtractableResponse<Response> primeira = original.get(10, TimeUnit.SECONDS);
+            assertEquals(201, primeira.statusCode());
+            for (Future<ExtractableResponse<Response>> duplicata : duplicatas) {
+                ExtractableResponse<Response> replay = duplicata.get(10, TimeUnit.SECONDS);
+                assertEquals(200, replay.statusCode());
+                assertEquals("IDEMPOTENT_REPLAY", replay.header("X-Idempotency-Status"));
+                assertEquals(primeira.body().asString(), replay.body().asString());
+            }
+            assertEquals(1, IdempotencyTestResource.executions.get());
+        } finally {
+            IdempotencyTestResource.release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void duplicatasRecebem409DepoisDoInFlightWait() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+        try {
+            Future<ExtractableResponse<Response>> original = executor.submit(() -> post("chave-conflito"));
+            assertTrue(IdempotencyTestResource.started.await(10, TimeUnit.SECONDS));
+
+            List<Future<ExtractableResponse<Response>>> duplicatas = new ArrayList<>();
+            for (int i = 1; i < REQUESTS; i++) {
+                duplicatas.add(executor.submit(() -> post("chave-conflito")));
+            }
+            // A original continua parada: cada duplicata desiste depois do in-flight-wait
+            for (Future<ExtractableResponse<Response>> duplicata : duplicatas) {
+                ExtractableResponse<Response> conflito = duplicata.get(10, TimeUnit.SECONDS);
+                assertEquals(409, conflito.statusCode());
+                assertEquals("IN_PROGRESS", conflito.header("X-Idempotency-Status"));
+            }
+
+            IdempotencyTestResource.release.countDown();
+            assertEquals(201, original.get(10, TimeUnit.SECONDS).statusCode());
+            assertEquals(200, post("chave-conflito").statusCode());
+            assertEquals(1, IdempotencyTestResource.executions.get());
+        } finally {
+            IdempotencyTestResource.release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static ExtractableResponse<Response> post(String key) {
+        return given().header("X-Idempotency-Key", key)
+                .when().post("/teste/idempotencia")
+                .then().extract();
+    }
+}
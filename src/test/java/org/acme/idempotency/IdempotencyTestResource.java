@@ -0,0 +1,36 @@
+package org.acme.idempotency;
+
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Só nos testes: uma escrita idempotente que fica parada até o teste liberar
+@Path("/teste/idempotencia")
+public class IdempotencyTestResource {
+
+    static final AtomicInteger executions = new AtomicInteger();
+    static volatile CountDownLatch started = new CountDownLatch(1);
+    static volatile CountDownLatch release = new CountDownLatch(1);
+
+    static void reset() {
+        executions.set(0);
+        started = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+    }
+
+    @POST
+    @Idempotent
+    @Produces("application/json")
+    public Response executar() throws InterruptedException {
+        int execucao = executions.incrementAndGet();
+        started.countDown();
+        release.await(30, TimeUnit.SECONDS);
+        return Response.status(Response.Status.CREATED).entity(Map.of("execucao", execucao)).build();
+    }
+}
@@ -0,0 +1,107 @@
+package org.acme.multiget;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdBatcherTest {
+
+    private final AtomicInteger queries = new AtomicInteger();
+
+    // "Tabela" com os ids de 1 a 100; o valor é o próprio id
+    private final IdLookup<Long> lookup = new IdLookup<>(Long.class, ids -> {
+        queries.incrementAndGet();
+        return ids.stream().filter(id -> id >= 1 && id <= 100).toList();
+    }, id -> id);
+
+    @Test
+    void buscasConcorrentesViramUmaConsulta() throws Exception {
+        // A primeira consulta fica presa no banco; as buscas que chegam enquanto isso esperam juntas
+        CountDownLatch inQuery = new CountDownLatch(1);
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        IdLookup<Long> slowFirst = new IdLookup<>(Long.class, ids -> {
+            if (queries.incrementAndGet() == 1) {
+                inQuery.countDown();
+                await(releaseQuery);
+            }
+            return ids;
+        }, id -> id);
+        // Janela longa e lote do tamanho exato: fecha quando o último chega
+        IdBatcher batcher = new IdBatcher(Duration.ofSeconds(10), 7);
+        List<Future<Long>> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<Long> first = executor.submit(() -> batcher.find(slowFirst, 1L));
+            assertTrue(inQuery.await(10, TimeUnit.SECONDS));
+            for (long id = 2; id <= 8; id++) {
+                long requested = id;
+                results.add(executor.submit(() -> batcher.find(slowFirst, requested)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i + 2L, results.get(i).get(10, TimeUnit.SECONDS));
+            }
+            releaseQuery.countDown();
+            assertEquals(1L, first.get(10, TimeUnit.SECONDS));
+        } finally {
+            releaseQuery.countDown();
+            executor.shutdownNow();
+        }
+        assertEquals(2, queries.get());
+        assertEquals(2, batcher.batches());
+        assertEquals(8, batcher.batchedIds());
+    }
+
+    @Test
+    void buscaIsoladaNaoEsperaAJanela() {
+        IdBatcher batcher = new IdBatcher(Duration.ofSeconds(10), 8);
+        long start = System.nanoTime();
+        assertEquals(7L, batcher.find(lookup, 7L));
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5);
+        assertEquals(1, batcher.batches());
+    }
+
+    @Test
+    void idInexistenteRetornaNull() {
+        IdBatcher batcher = new IdBatcher(Duration.ofMillis(1), 8);
+        assertNull(batcher.find(lookup, 1000L));
+        assertEquals(5L, batcher.find(lookup, 5L));
+    }
+
+    @Test
+    void erroDaConsultaChegaAQuemPediu() {
+        IdBatcher batcher = new IdBatcher(Duration.ofMillis(1), 8);
+        IdLookup<Long> failing = new IdLookup<>(Long.class, ids -> {
+            throw new IllegalStateException("banco fora");
+        }, id -> id);
+        assertThrows(IllegalStateException.class, () -> batcher.find(failing, 1L));
+    }
+
+    @Test
+    void semJanelaVaiDiretoAoBanco() {
+        IdBatcher batcher = new IdBatcher(Duration.ZERO, 8);
+        assertEquals(3L, batcher.find(lookup, 3L));
+        assertEquals(0, batcher.batches());
+        assertTrue(queries.get() > 0);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.acme.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private final RateLimiter rateLimiter = new RateLimiter(new TestConfig(Set.of("chave-conhecida")));
+
+    @Test
+    void chaveConhecidaGanhaBalde() {
+        assertEquals("key:chave-conhecida", rateLimiter.clientKey("chave-conhecida", "203.0.113.7"));
+    }
+
+    @Test
+    void chaveDesconhecidaOuAusenteContaPeloIp() {
+        assertEquals("ip:203.0.113.7", rateLimiter.clientKey("inventada", "203.0.113.7"));
+        assertEquals("ip:203.0.113.7", rateLimiter.clientKey("", "203.0.113.7"));
+        assertEquals("ip:203.0.113.7", rateLimiter.clientKey(null, "203.0.113.7"));
+    }
+
+    @Test
+    void trocarDeChaveNaoRenovaOBalde() {
+        for (int i = 0; i < 3; i++) {
+            String client = rateLimiter.clientKey("chave-" + i, "203.0.113.7");
+            assertTrue(rateLimiter.tryConsume(client, 1, false).allowed);
+        }
+        assertFalse(rateLimiter.tryConsume(rateLimiter.clientKey("chave-3", "203.0.113.7"), 1, false).allowed);
+        assertTrue(rateLimiter.tryConsume(rateLimiter.clientKey("chave-conhecida", "203.0.113.7"), 1, false).allowed);
+    }
+
+    @Test
+    void semChavesConfiguradasTudoContaPeloIp() {
+        RateLimiter semChaves = new RateLimiter(new TestConfig(null));
+        assertEquals("ip:203.0.113.7", semChaves.clientKey("chave-conhecida", "203.0.113.7"));
+    }
+
+    record TestConfig(Set<String> keys) implements RateLimitConfig {
+        @Override
+        public int capacity() {
+            return 3;
+        }
+
+        @Override
+        public Duration refillPeriod() {
+            return Duration.ofHours(1);
+        }
+
+        @Override
+        public int readCost() {
+            return 1;
+        }
+
+        @Override
+        public int writeCost() {
+            return 1;
+        }
+
+        @Override
+        public Map<String, Integer> routeCost() {
+            return Map.of();
+        }
+
+        @Override
+        public long maxClients() {
+            return 100;
+        }
+
+        @Override
+        public String apiKeyHeader() {
+            return "X-Api-Key";
+        }
+
+        @Override
+        public Optional<Set<String>> apiKeys() {
+            return Optional.ofNullable(keys);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.acme.search;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import org.acme.Desenvolvedora;
+import org.acme.etag.CatalogETags;
+import org.acme.events.CatalogChange;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// A chave do cache de pesquisas leva o contador de catalog_version: uma escrita faz a próxima pesquisa executar de novo
+@QuarkusTest
+class CatalogSearchCacheTest {
+
+    private static final SearchTarget<Desenvolvedora> SEARCH =
+            new SearchTarget<>(Desenvolvedora.class, "/v1/desenvolvedoras/search", SortKeys.of("nome"),
+                    Desenvolvedora::find, Desenvolvedora::count, desenvolvedora -> desenvolvedora.id);
+
+    @Inject
+    CatalogSearch catalogSearch;
+
+    @Inject
+    SearchResultCache resultCache;
+
+    @Inject
+    CatalogETags etags;
+
+    @Inject
+    Event<CatalogChange> changes;
+
+    @Test
+    void escritaMudaAChave() {
+        Long id = QuarkusTransaction.requiringNew().call(() -> {
+            Desenvolvedora desenvolvedora = new Desenvolvedora();
+            desenvolvedora.nome = "Geracao Alfa";
+            desenvolvedora.paisDeOrigem = "Brasil";
+            desenvolvedora.persist();
+            changes.fire(CatalogChange.created(Desenvolvedora.class, desenvolvedora.id, desenvolvedora));
+            return desenvolvedora.id;
+        });
+
+        assertEquals(List.of("Geracao Alfa"), nomes(search()));
+        long misses = resultCache.stats().missCount();
+        assertEquals(List.of("Geracao Alfa"), nomes(search()));
+        assertEquals(misses, resultCache.stats().missCount());
+
+        long antes = etags.version(Desenvolvedora.class);
+        QuarkusTransaction.requiringNew().run(() -> {
+            Desenvolvedora desenvolvedora = Desenvolvedora.findById(id);
+            desenvolvedora.nome = "Geracao Beta";
+            Desenvolvedora.flush();
+            changes.fire(CatalogChange.updated(Desenvolvedora.class, id, desenvolvedora));
+        });
+        assertEquals(antes + 1, etags.version(Desenvolvedora.class));
+
+        // Mesmos parâmetros, geração nova: falta, e a página já traz o nome novo
+        assertEquals(List.of("Geracao Beta"), nomes(search()));
+        assertEquals(misses + 1, resultCache.stats().missCount());
+    }
+
+    private SearchPage<Desenvolvedora> search() {
+        SearchParams params = new SearchParams();
+        params.q = "geracao";
+        params.sort = "nome";
+        params.direction = "asc";
+        params.size = 10;
+        params.pagination = "offset";
+        params.total = true;
+        return catalogSearch.search(SEARCH, params);
+    }
+
+    private static List<String> nomes(SearchPage<Desenvolvedora> page) {
+        return page.items.stream().map(desenvolvedora -> desenvolvedora.nome).toList();
+    }
+}
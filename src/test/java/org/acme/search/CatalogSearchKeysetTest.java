@@ -0,0 +1,143 @@
+package org.acme.search;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import org.acme.Desenvolvedora;
+import org.acme.events.CatalogChange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// O modo cursor precisa entregar as mesmas linhas, na mesma ordem, que o modo offset
+@QuarkusTest
+class CatalogSearchKeysetTest {
+
+    private static final SearchTarget<Desenvolvedora> SEARCH =
+            new SearchTarget<>(Desenvolvedora.class, "/v1/desenvolvedoras/search", SortKeys.of("nome", "paisDeOrigem"),
+                    Desenvolvedora::find, Desenvolvedora::count, desenvolvedora -> desenvolvedora.id);
+
+    private static final Pattern CURSOR = Pattern.compile("[?&]cursor=([^&]+)");
+    // Poucos países para que a ordenação tenha muitos empates
+    private static final String[] PAISES = {"Japão", "Brasil", "Canadá"};
+
+    private static boolean seeded;
+
+    @Inject
+    CatalogSearch catalogSearch;
+
+    @Inject
+    Event<CatalogChange> changes;
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        // Pelo evento, como os recursos: o índice textual também recebe as linhas
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < 23; i++) {
+                Desenvolvedora desenvolvedora = new Desenvolvedora();
+                desenvolvedora.nome = "Keyset " + (char) ('A' + i % 7);
+                desenvolvedora.paisDeOrigem = PAISES[i % PAISES.length];
+                desenvolvedora.persist();
+                changes.fire(CatalogChange.created(Desenvolvedora.class, desenvolvedora.id, desenvolvedora));
+            }
+        });
+        seeded = true;
+    }
+
+    @Test
+    void cursorSemTermoIgualAoOffset() {
+        for (String sort : new String[]{"id", "nome", "paisDeOrigem"}) {
+            for (String direction : new String[]{"asc", "desc"}) {
+                for (int size : new int[]{1, 4, 7}) {
+                    assertSameWalk(null, sort, direction, size);
+                }
+            }
+        }
+    }
+
+    @Test
+    void cursorComTermoIgualAoOffset() {
+        for (String sort : new String[]{"id", "nome", "paisDeOrigem"}) {
+            for (String direction : new String[]{"asc", "desc"}) {
+                for (int size : new int[]{1, 4, 7}) {
+                    assertSameWalk("keyset", sort, direction, size);
+                }
+            }
+        }
+    }
+
+    @Test
+    void tamanhoEPaginaAbsurdosNaoEstouram() {
+        SearchParams params = params(null, "nome", "asc", Integer.MAX_VALUE);
+        params.page = Integer.MAX_VALUE;
+        SearchPage<Desenvolvedora> page = search(params);
+        assertEquals(CatalogSearch.MAX_PAGE_SIZE, page.pageSize);
+        assertTrue(page.items.isEmpty());
+        assertFalse(page.hasMore);
+    }
+
+    private void assertSameWalk(String q, String sort, String direction, int size) {
+        String label = "q=" + q + " sort=" + sort + " " + direction + " size=" + size;
+
+        List<Long> offset = new ArrayList<>();
+        SearchParams params = params(q, sort, direction, size);
+        long total;
+        SearchPage<Desenvolvedora> page;
+        do {
+            page = search(params);
+            page.items.forEach(d -> offset.add(d.id));
+            total = page.total;
+            params.page++;
+        } while (page.hasMore);
+
+        List<Long> cursor = new ArrayList<>();
+        params = params(q, sort, direction, size);
+        params.pagination = "cursor";
+        do {
+            page = search(params);
+            page.items.forEach(d -> cursor.add(d.id));
+            params.cursor = page.hasMore ? cursor(page.nextPage) : null;
+        } while (page.hasMore);
+
+        assertEquals(total, offset.size(), label);
+        assertEquals(offset.size(), new HashSet<>(offset).size(), label);
+        assertEquals(offset, cursor, label);
+    }
+
+    private SearchPage<Desenvolvedora> search(SearchParams params) {
+        return QuarkusTransaction.requiringNew().call(() -> catalogSearch.search(SEARCH, params));
+    }
+
+    private static SearchParams params(String q, String sort, String direction, int size) {
+        SearchParams params = new SearchParams();
+        params.q = q;
+        params.sort = sort;
+        params.direction = direction;
+        params.size = size;
+        params.page = 0;
+        params.pagination = "offset";
+        params.total = true;
+        return params;
+    }
+
+    private static String cursor(String nextPage) {
+        Matcher matcher = CURSOR.matcher(nextPage);
+        assertTrue(matcher.find(), nextPage);
+        return URLDecoder.decode(matcher.group(1), StandardCharsets.UTF_8);
+    }
+}
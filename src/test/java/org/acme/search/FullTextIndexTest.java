@@ -0,0 +1,84 @@
+package org.acme.search;
+
+import io.quarkus.panache.common.Sort;
+import org.acme.Desenvolvedora;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Ordenação e cursor do caminho com termo (CatalogSearch.sortedHits), sem banco
+class FullTextIndexTest {
+
+    private static final String[] PAISES = {"Japão", null, "Brasil", "Japão", null, "Brasil", "Canadá"};
+
+    private static FullTextIndex index() {
+        FullTextIndex index = new FullTextIndex();
+        for (long id = 1; id <= 14; id++) {
+            index.put(id, new FullTextIndex.Document().field("estúdio " + id, 2f)
+                    .sortValue("paisDeOrigem", PAISES[(int) (id % PAISES.length)]));
+        }
+        return index;
+    }
+
+    @Test
+    void ordenaComNulosNoFimEIdComoDesempate() {
+        FullTextIndex index = index();
+        List<Long> ids = ids(index);
+
+        // Brasil: 2, 5, 9, 12; Canadá: 6, 13; Japão: 3, 7, 10, 14; nulos: 1, 4, 8, 11
+        assertEquals(List.of(2L, 5L, 9L, 12L, 6L, 13L, 3L, 7L, 10L, 14L, 1L, 4L, 8L, 11L),
+                index.sort(ids, "paisDeOrigem", false, null));
+        assertEquals(List.of(14L, 10L, 7L, 3L, 13L, 6L, 12L, 9L, 5L, 2L, 11L, 8L, 4L, 1L),
+                index.sort(ids, "paisDeOrigem", true, null));
+    }
+
+    @Test
+    void cursorPercorreTodasAsPaginasSemRepetirNemPular() {
+        FullTextIndex index = index();
+        List<Long> ids = ids(index);
+        for (boolean descending : new boolean[]{false, true}) {
+            for (String field : new String[]{"paisDeOrigem", "id"}) {
+                for (int size = 1; size <= 5; size++) {
+                    assertEquals(index.sort(ids, field, descending, null), walk(index, ids, field, descending, size),
+                            field + (descending ? " desc" : " asc") + " size " + size);
+                }
+            }
+        }
+    }
+
+    // Mesma montagem do próximo cursor que o CatalogSearch faz
+    private static List<Long> walk(FullTextIndex index, List<Long> ids, String field, boolean descending, int size) {
+        Sort.Direction direction = descending ? Sort.Direction.Descending : Sort.Direction.Ascending;
+        List<Long> seen = new ArrayList<>();
+        KeysetCursor after = null;
+        while (true) {
+            List<Long> rest = index.sort(ids, field, descending, after);
+            List<Long> page = rest.subList(0, Math.min(size, rest.size()));
+            seen.addAll(page);
+            if (page.size() == rest.size()) {
+                break;
+            }
+            Long last = page.get(page.size() - 1);
+            String token = KeysetCursor.of(field, direction, index.sortValue(last, field), last).encode();
+            after = decode(token, field, direction);
+        }
+        assertEquals(seen.size(), new HashSet<>(seen).size(), "ids repetidos");
+        return seen;
+    }
+
+    private static KeysetCursor decode(String token, String field, Sort.Direction direction) {
+        return KeysetCursor.decode(token, Desenvolvedora.class, field, direction);
+    }
+
+    private static List<Long> ids(FullTextIndex index) {
+        List<Long> ids = new ArrayList<>();
+        for (FullTextIndex.Hit hit : index.search("estudio")) {
+            ids.add(hit.id);
+        }
+        return ids;
+    }
+}
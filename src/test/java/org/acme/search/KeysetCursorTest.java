@@ -0,0 +1,94 @@
+package org.acme.search;
+
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
+import jakarta.ws.rs.BadRequestException;
+import org.acme.Desenvolvedora;
+import org.acme.Jogo;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    private static Desenvolvedora desenvolvedora(long id, String nome) {
+        Desenvolvedora desenvolvedora = new Desenvolvedora();
+        desenvolvedora.id = id;
+        desenvolvedora.nome = nome;
+        return desenvolvedora;
+    }
+
+    @Test
+    void tokenVoltaComOMesmoValorEId() {
+        // O separador dentro do valor não pode quebrar o token
+        String token = KeysetCursor.after(desenvolvedora(42, "Red|Blue"), "nome", Sort.Direction.Ascending).encode();
+
+        KeysetCursor cursor = KeysetCursor.decode(token, Desenvolvedora.class, "nome", Sort.Direction.Ascending);
+        assertEquals("Red|Blue", cursor.lastValue);
+        assertEquals(42, cursor.lastId);
+    }
+
+    @Test
+    void valorNumericoVoltaNoTipoDoCampo() {
+        Jogo jogo = new Jogo();
+        jogo.id = 7L;
+        jogo.anoLancamento = 2004;
+        String token = KeysetCursor.after(jogo, "anoLancamento", Sort.Direction.Descending).encode();
+
+        KeysetCursor cursor = KeysetCursor.decode(token, Jogo.class, "anoLancamento", Sort.Direction.Descending);
+        assertEquals(2004, cursor.lastValue);
+        assertEquals(7, cursor.lastId);
+    }
+
+    @Test
+    void valorNuloVoltaNulo() {
+        String token = KeysetCursor.of("paisDeOrigem", Sort.Direction.Ascending, null, 9).encode();
+
+        KeysetCursor cursor = KeysetCursor.decode(token, Desenvolvedora.class, "paisDeOrigem", Sort.Direction.Ascending);
+        assertNull(cursor.lastValue);
+        assertEquals(9, cursor.lastId);
+    }
+
+    @Test
+    void semTokenEPrimeiraPagina() {
+        assertNull(KeysetCursor.decode(null, Desenvolvedora.class, "nome", Sort.Direction.Ascending));
+        assertNull(KeysetCursor.decode(" ", Desenvolvedora.class, "nome", Sort.Direction.Ascending));
+    }
+
+    @Test
+    void cursorDeOutraOrdenacaoERecusado() {
+        String token = KeysetCursor.after(desenvolvedora(1, "Capcom"), "nome", Sort.Direction.Ascending).encode();
+
+        assertThrows(BadRequestException.class,
+                () -> KeysetCursor.decode(token, Desenvolvedora.class, "paisDeOrigem", Sort.Direction.Ascending));
+        assertThrows(BadRequestException.class,
+                () -> KeysetCursor.decode(token, Desenvolvedora.class, "nome", Sort.Direction.Descending));
+        assertThrows(BadRequestException.class,
+                () -> KeysetCursor.decode("não-é-base64!", Desenvolvedora.class, "nome", Sort.Direction.Ascending));
+    }
+
+    @Test
+    void predicadoAvancaComNulosNoFim() {
+        assertEquals("(nome > :keysetValue or (nome = :keysetValue and id > :keysetId) or nome is null)",
+                KeysetCursor.of("nome", Sort.Direction.Ascending, "Capcom", 4).predicate());
+        assertEquals("(nome < :keysetValue or (nome = :keysetValue and id < :keysetId) or nome is null)",
+                KeysetCursor.of("nome", Sort.Direction.Descending, "Capcom", 4).predicate());
+        // Depois de um nulo só vêm outros nulos, desempatados pelo id
+        assertEquals("(nome is null and id > :keysetId)",
+                KeysetCursor.of("nome", Sort.Direction.Ascending, null, 4).predicate());
+        assertEquals("(nome is null and id < :keysetId)",
+                KeysetCursor.of("nome", Sort.Direction.Descending, null, 4).predicate());
+        assertEquals("id < :keysetId", KeysetCursor.of("id", Sort.Direction.Descending, 4L, 4).predicate());
+    }
+
+    @Test
+    void valorNuloNaoEVinculado() {
+        Parameters params = KeysetCursor.of("nome", Sort.Direction.Ascending, null, 4).bind(new Parameters());
+
+        assertEquals(4L, params.map().get("keysetId"));
+        assertFalse(params.map().containsKey("keysetValue"));
+    }
+}
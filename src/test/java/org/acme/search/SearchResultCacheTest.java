@@ -0,0 +1,147 @@
+package org.acme.search;
+
+import org.acme.Desenvolvedora;
+import org.acme.cache.EntityCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchResultCacheTest {
+
+    private static final int THREADS = 8;
+
+    // Sem finder: as entidades das páginas já estão no EntityCache, então a hidratação não vai ao banco
+    private static final SearchTarget<Desenvolvedora> TARGET =
+            new SearchTarget<>(Desenvolvedora.class, "/v1/desenvolvedoras/search", SortKeys.of("nome"),
+                    null, null, desenvolvedora -> desenvolvedora.id);
+
+    private final EntityCache entityCache = new EntityCache(100, Duration.ofMinutes(1));
+    private final SearchResultCache cache = new SearchResultCache(entityCache, true, 1 << 20, 1 << 20, Duration.ofMinutes(1));
+    private final ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void faltasIguaisSimultaneasExecutamUmaVez() throws Exception {
+        Desenvolvedora a = cached(1, "Alfa");
+        Desenvolvedora b = cached(2, "Beta");
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<SearchPage<Desenvolvedora>> search = () -> {
+            executions.incrementAndGet();
+            await(release);
+            return new SearchPage<>(List.of(a, b), 2, 4, false, "");
+        };
+
+        List<SearchPage<Desenvolvedora>> pages = concurrently(release, () -> cache.get("Desenvolvedora:1:0|", null, TARGET, search));
+
+        assertEquals(1, executions.get());
+        for (SearchPage<Desenvolvedora> page : pages) {
+            assertEquals(List.of(a, b), page.items);
+            assertEquals(2, page.total);
+        }
+        // Depois da falta, a mesma chave continua servida do cache
+        assertEquals(List.of(a, b), cache.get("Desenvolvedora:1:0|", null, TARGET, search).items);
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void outraGeracaoExecutaDeNovo() {
+        Desenvolvedora a = cached(1, "Alfa");
+        AtomicInteger executions = new AtomicInteger();
+        Supplier<SearchPage<Desenvolvedora>> search = () -> {
+            executions.incrementAndGet();
+            return new SearchPage<>(List.of(a), 1, 4, false, "");
+        };
+
+        cache.get("Desenvolvedora:1:0|", null, TARGET, search);
+        cache.get("Desenvolvedora:1:0|", null, TARGET, search);
+        cache.get("Desenvolvedora:2:0|", null, TARGET, search);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void falhaDoPrimeiroChegaAQuemEsperavaENaoFicaEmCache() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("banco fora");
+        Supplier<SearchPage<Desenvolvedora>> failing = () -> {
+            executions.incrementAndGet();
+            await(release);
+            throw failure;
+        };
+
+        for (Future<SearchPage<Desenvolvedora>> future : start(release, () -> cache.get("Desenvolvedora:1:0|falha", null, TARGET, failing))) {
+            Exception e = assertThrows(Exception.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertSame(failure, e.getCause());
+        }
+        assertEquals(1, executions.get());
+
+        Desenvolvedora a = cached(1, "Alfa");
+        SearchPage<Desenvolvedora> page = cache.get("Desenvolvedora:1:0|falha", null, TARGET,
+                () -> new SearchPage<>(List.of(a), 1, 4, false, ""));
+        assertEquals(List.of(a), page.items);
+    }
+
+    private Desenvolvedora cached(long id, String nome) {
+        Desenvolvedora desenvolvedora = new Desenvolvedora();
+        desenvolvedora.id = id;
+        desenvolvedora.nome = nome;
+        entityCache.get(Desenvolvedora.class, id, k -> desenvolvedora);
+        return desenvolvedora;
+    }
+
+    private <T> List<T> concurrently(CountDownLatch release, Supplier<T> call) throws Exception {
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : start(release, call)) {
+            results.add(future.get(5, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    // Dispara THREADS chamadas e só libera a execução depois que todas começaram
+    private <T> List<Future<T>> start(CountDownLatch release, Supplier<T> call) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(pool.submit(() -> {
+                ready.countDown();
+                return call.get();
+            }));
+        }
+        assertTrue(ready.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        release.countDown();
+        return futures;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("latch não liberado");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}